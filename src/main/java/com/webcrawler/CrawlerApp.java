@@ -1,18 +1,43 @@
 package com.webcrawler;
 
 import com.webcrawler.core.ApiCrawler;
+import com.webcrawler.core.CrawlFrontier;
+import com.webcrawler.core.ExecutionMode;
+import com.webcrawler.model.CrawlCheckpoint;
 import com.webcrawler.model.CrawlResult;
+import com.webcrawler.model.GuardianArticle;
+import com.webcrawler.model.GuardianSearchResponse;
+import com.webcrawler.storage.IdFilter;
 import com.webcrawler.storage.JsonFileStorage;
+import com.webcrawler.storage.PaginatedResultWriter;
+import com.webcrawler.storage.ResultSubscriber;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Main application class for the API Web Crawler
@@ -21,6 +46,150 @@ public class CrawlerApp {
     
     private static final Logger logger = LoggerFactory.getLogger(CrawlerApp.class);
     
+    // Guardian API has a maximum page-size of 200
+    private static final String GUARDIAN_HOST = "content.guardianapis.com";
+    private static final int GUARDIAN_MAX_PAGE_SIZE = 200;
+    
+    private static final String DEFAULT_GUARDIAN_SHOW_FIELDS = "headline,byline,body,thumbnail";
+    
+    // Field projection for search requests, set from --fields and --tags (empty leaves the parameter out)
+    private static String guardianShowFields = DEFAULT_GUARDIAN_SHOW_FIELDS;
+    private static String guardianShowTags = "";
+    
+    // Explicit ordering for paginated requests, so concurrently fetched pages slice one stable sequence
+    private static final String GUARDIAN_PAGE_ORDER = "&order-by=newest&use-date=published";
+    
+    // Date windows with more pages than this are split in half, down to single days
+    private static final int MAX_PAGES_PER_SHARD = 5;
+    
+    /**
+     * Pages of a date-sharded crawl, handed on in date order as they complete. Each date
+     * window either holds its pages or is split into parts; a page is held only until every
+     * page before it has been handed on, and dropped afterwards.
+     */
+    private static final class ShardCrawl {
+        private final ShardWindow root = new ShardWindow();
+        private final CompletableFuture<Integer> total = new CompletableFuture<>();
+        private CompletableFuture<Void> done;
+        private ObjIntConsumer<CrawlResult> sink;
+        private int windowsPending;
+        private int windowsTotal;
+        private int pageCount;
+        
+        /**
+         * Split the root into the given number of top-level windows
+         */
+        synchronized ShardWindow[] start(int windows) {
+            windowsPending = windows;
+            return split(root, windows, -1);
+        }
+        
+        /**
+         * Split a window into parts after its first page reported the window's total;
+         * a negative total means the window is not a top-level one
+         */
+        synchronized ShardWindow[] split(ShardWindow window, int parts, int windowTotal) {
+            window.parts = new ShardWindow[parts];
+            for (int i = 0; i < parts; i++) {
+                window.parts[i] = new ShardWindow();
+            }
+            reportTotal(windowTotal);
+            return window.parts;
+        }
+        
+        /**
+         * Give a window its page count once its first page reported the window's total
+         */
+        synchronized void resolve(ShardWindow window, int pages, int windowTotal) {
+            window.pages = new CrawlResult[pages];
+            reportTotal(windowTotal);
+        }
+        
+        /**
+         * Hand in the page at the given index (0-based) of a resolved window
+         */
+        synchronized void deliver(ShardWindow window, int index, CrawlResult page) {
+            window.pages[index] = page;
+            drain(root);
+        }
+        
+        /**
+         * Start handing pages on to the sink, with their index in date order
+         */
+        synchronized void drainTo(ObjIntConsumer<CrawlResult> sink) {
+            this.sink = sink;
+            drain(root);
+        }
+        
+        private void reportTotal(int windowTotal) {
+            if (windowTotal >= 0) {
+                windowsTotal += windowTotal;
+                if (--windowsPending == 0) {
+                    total.complete(windowsTotal);
+                }
+            }
+        }
+        
+        /**
+         * Hand on every page that is next in order; returns whether the window is exhausted
+         */
+        private boolean drain(ShardWindow window) {
+            if (sink == null) {
+                return false;
+            }
+            if (window.parts != null) {
+                while (window.next < window.parts.length && drain(window.parts[window.next])) {
+                    window.parts[window.next++] = null;
+                }
+                return window.next == window.parts.length;
+            }
+            if (window.pages == null) {
+                return false;
+            }
+            while (window.next < window.pages.length && window.pages[window.next] != null) {
+                CrawlResult page = window.pages[window.next];
+                window.pages[window.next++] = null;
+                sink.accept(page, pageCount++);
+            }
+            return window.next == window.pages.length;
+        }
+        
+        /**
+         * Article total of the whole range, known once every top-level window answered its first page
+         */
+        CompletableFuture<Integer> total() {
+            return total;
+        }
+        
+        /**
+         * Completes once every page has been fetched
+         */
+        CompletableFuture<Void> done() {
+            return done;
+        }
+        
+        synchronized int pageCount() {
+            return pageCount;
+        }
+    }
+    
+    /**
+     * One date window of a sharded crawl: unresolved, split into parts, or holding its pages
+     */
+    private static final class ShardWindow {
+        private final CompletableFuture<Integer> total = new CompletableFuture<>(); // Reported by its page 1
+        private ShardWindow[] parts;
+        private CrawlResult[] pages; // Null entries: not fetched yet, or already handed on
+        private int next; // Parts or pages already handed on
+    }
+    
+    /**
+     * Outcome of one Guardian crawl, for the combined summary of a multi-section crawl
+     */
+    private record GuardianCrawlSummary(String section, String filename, int successful, int failed, 
+                                        long articles, long durationMs) {
+    }
+    
     public static void main(String[] args) {
         Options options = createOptions();
         CommandLineParser parser = new DefaultParser();
@@ -35,7 +204,12 @@ public class CrawlerApp {
             
             // Configuration
             int threadPoolSize = Integer.parseInt(cmd.getOptionValue("threads", "10"));
+            ExecutionMode executionMode = ExecutionMode.fromString(cmd.getOptionValue("executor", "platform"));
             long rateLimitMs = Long.parseLong(cmd.getOptionValue("rate-limit", "1000"));
+            // Per-host token bucket: defaults to one request per --rate-limit interval per host
+            double hostRate = Double.parseDouble(cmd.getOptionValue("host-rate", 
+                    String.valueOf(rateLimitMs > 0 ? 1000.0 / rateLimitMs : 0)));
+            int hostBurst = Integer.parseInt(cmd.getOptionValue("host-burst", "1"));
             String userAgent = cmd.getOptionValue("user-agent", "ApiWebCrawler/1.0");
             int maxRetries = Integer.parseInt(cmd.getOptionValue("max-retries", "3"));
             long baseRetryDelayMs = Long.parseLong(cmd.getOptionValue("retry-delay", "1000"));
@@ -53,28 +227,62 @@ public class CrawlerApp {
             }
             
             int maxConnections = Integer.parseInt(cmd.getOptionValue("max-connections", "4"));
+            boolean adaptiveConcurrency = cmd.hasOption("adaptive-concurrency");
+            int adaptiveMaxConnections = Integer.parseInt(cmd.getOptionValue("adaptive-max-connections", "64"));
+            int breakerThreshold = Integer.parseInt(cmd.getOptionValue("breaker-threshold", "5"));
+            long breakerOpenMs = Long.parseLong(cmd.getOptionValue("breaker-open-ms", "30000"));
+            double hedgePercentile = Double.parseDouble(cmd.getOptionValue("hedge-percentile", "0"));
+            double hedgeBudget = Double.parseDouble(cmd.getOptionValue("hedge-budget", "0.05"));
             
             // Guardian API specific configuration
             String fromDate = cmd.getOptionValue("from", "2025-06-01");
             String toDate = cmd.getOptionValue("to", "2025-06-30");
-            String section = cmd.getOptionValue("section", null);
+            List<String> sections = parseSections(cmd.getOptionValue("section", null));
             int pageSize = Integer.parseInt(cmd.getOptionValue("page-size", "200"));
+            String frontierDir = cmd.getOptionValue("frontier", null);
+            boolean adaptivePages = cmd.hasOption("adaptive-pages");
+            int shardDays = Integer.parseInt(cmd.getOptionValue("shard-days", "0"));
+            boolean incremental = cmd.hasOption("incremental");
+            double dedupeBloomFpp = Double.parseDouble(cmd.getOptionValue("dedupe-bloom-fpp", "0"));
+            guardianShowFields = parseFieldList(cmd.getOptionValue("fields", DEFAULT_GUARDIAN_SHOW_FIELDS));
+            guardianShowTags = parseFieldList(cmd.getOptionValue("tags", "none"));
+            List<String> droppedPaths = Arrays.asList(cmd.getOptionValue("drop-paths", "").split(","));
             
             // Initialize crawler and storage with advanced options
             ApiCrawler crawler = new ApiCrawler(threadPoolSize, rateLimitMs, maxRetries, baseRetryDelayMs, 
-                                               backoffMultiplier, enableHttp2, enableConcurrentProcessing, maxConnections);
+                                               backoffMultiplier, enableHttp2, enableConcurrentProcessing, maxConnections,
+                                               executionMode);
             crawler.setUserAgent(userAgent);
+            crawler.setHostRateLimit(hostRate, hostBurst);
+            if (adaptiveConcurrency) {
+                crawler.setAdaptiveConcurrency(adaptiveMaxConnections);
+            }
+            crawler.setCircuitBreaker(breakerThreshold, breakerOpenMs);
+            crawler.setHedging(hedgePercentile, hedgeBudget);
+            crawler.setDroppedPaths(droppedPaths);
+            crawler.registerResponseType(GUARDIAN_HOST, GuardianSearchResponse.class);
             
             // Show configuration
             System.out.println("🔧 Crawler Configuration:");
-            System.out.println("   Thread Pool Size: " + threadPoolSize);
+            System.out.println("   Executor: " + crawler.getExecutionMode().name().toLowerCase());
+            System.out.println("   Thread Pool Size: " + (crawler.getExecutionMode() == ExecutionMode.VIRTUAL ? "virtual thread per task" : threadPoolSize));
             System.out.println("   HTTP/2 Enabled: " + enableHttp2);
             System.out.println("   Concurrent Processing: " + enableConcurrentProcessing);
-            System.out.println("   Max Connections per Host: " + maxConnections);
-            System.out.println("   Rate Limit: " + rateLimitMs + "ms");
+            System.out.println("   Max Connections per Host: " + maxConnections + 
+                             (adaptiveConcurrency ? " (adaptive, ceiling " + Math.max(maxConnections, adaptiveMaxConnections) + ")" : ""));
+            System.out.println("   Per-host Rate Limit: " + (hostRate > 0 ? hostRate + " req/s (burst " + hostBurst + ")" : "unlimited"));
             System.out.println("   Max Retries: " + maxRetries);
             System.out.println("   Base Retry Delay: " + baseRetryDelayMs + "ms");
             System.out.println("   Backoff Multiplier: " + backoffMultiplier + "x");
+            System.out.println("   Circuit Breaker: " + (breakerThreshold > 0 
+                    ? "open after " + breakerThreshold + " failures, probe every " + breakerOpenMs + "ms" : "disabled"));
+            System.out.println("   Hedged GETs: " + (hedgePercentile > 0 && hedgeBudget > 0 
+                    ? "at p" + hedgePercentile + " latency, budget " + (hedgeBudget * 100) + "%" : "disabled"));
+            System.out.println("   Guardian Fields: " + (guardianShowFields.isEmpty() ? "none" : guardianShowFields) + 
+                             (guardianShowTags.isEmpty() ? "" : ", tags: " + guardianShowTags));
+            if (cmd.hasOption("drop-paths")) {
+                System.out.println("   Dropped Response Paths: " + cmd.getOptionValue("drop-paths"));
+            }
             System.out.println();
             
             // Show retry configuration
@@ -92,7 +300,25 @@ public class CrawlerApp {
                 crawlSingleUrl(crawler, storage, url);
             } else if (cmd.hasOption("examples")) {
                 // Run Guardian news crawl (like SimpleCrawler but with advanced features)
-                runGuardianNewsCrawl(crawler, storage, fromDate, toDate, section, pageSize);
+                if (incremental && sections.size() > 1) {
+                    runMultiSectionGuardianCrawl(sections, section -> 
+                            runIncrementalGuardianCrawl(crawler, storage, fromDate, toDate, section, pageSize));
+                } else if (incremental) {
+                    runIncrementalGuardianCrawl(crawler, storage, fromDate, toDate, sections.get(0), pageSize);
+                } else if (frontierDir != null) {
+                    // All sections share one frontier; each page is saved to its own file (unique per URL), without merging
+                    List<String> urls = new ArrayList<>();
+                    for (String section : sections) {
+                        urls.addAll(getGuardianUrls(fromDate, toDate, section, pageSize));
+                    }
+                    runFrontierCrawl(crawler, storage, frontierDir, urls);
+                } else if (sections.size() > 1) {
+                    runMultiSectionGuardianCrawl(sections, section -> runGuardianNewsCrawl(crawler, storage, fromDate, toDate, 
+                            section, pageSize, adaptivePages, shardDays, dedupeBloomFpp));
+                } else {
+                    runGuardianNewsCrawl(crawler, storage, fromDate, toDate, sections.get(0), pageSize, adaptivePages, 
+                                         shardDays, dedupeBloomFpp);
+                }
             } else if (cmd.hasOption("stats")) {
                 // Show statistics
                 showStats(storage);
@@ -108,15 +334,28 @@ public class CrawlerApp {
                 System.out.println("Guardian API Options:");
                 System.out.println("  --from <YYYY-MM-DD>                         # Start date (default: 2025-06-01)");
                 System.out.println("  --to <YYYY-MM-DD>                           # End date (default: 2025-06-30)");
-                System.out.println("  --section <name>                            # Filter by section (sport, business, world, etc.)");
+                System.out.println("  --section <name[,name...]>                  # Filter by section; several are crawled concurrently");
                 System.out.println("  --page-size <N>                             # Articles per request (default: 200, >200 uses pagination)");
+                System.out.println("  --adaptive-pages                            # Size pagination from the API's page count");
+                System.out.println("  --shard-days <N>                            # Crawl the date range as concurrent N-day windows");
+                System.out.println("  --incremental                               # Fetch only changes since the last run and merge them");
+                System.out.println("  --dedupe-bloom-fpp <RATE>                   # De-duplicate articles with a Bloom filter (very large crawls)");
+                System.out.println("  --fields <LIST|none>                        # Article fields to request (default: headline,byline,body,thumbnail)");
+                System.out.println("  --tags <LIST|none>                          # Article tags to request (default: none)");
+                System.out.println("  --drop-paths <PATHS>                        # Dotted JSON paths to drop while parsing responses");
+                System.out.println("  --frontier <DIR>                            # Resumable crawl from a disk-backed URL frontier");
+                System.out.println("                                              #   (sections share one frontier; one crawl_*.json file per page)");
                 System.out.println();
                 System.out.println("Advanced Features:");
                 System.out.println("  --threads <N>                                # Number of threads (default: 10)");
+                System.out.println("  --executor <platform|virtual>               # Worker threads: fixed pool or virtual threads (Java 21+)");
                 System.out.println("  --enable-http2 / --disable-http2            # HTTP/2 multiplexing control");
                 System.out.println("  --enable-concurrent-processing              # Concurrent response processing");
                 System.out.println("  --max-connections <N>                       # Max connections per host (default: 4)");
+                System.out.println("  --host-rate <N> / --host-burst <N>          # Per-host token bucket rate (req/s) and burst");
+                System.out.println("  --adaptive-concurrency                      # Adapt per-host concurrency to latency and 429/503s");
                 System.out.println("  --max-retries <N>                           # Retry attempts (default: 3)");
+                System.out.println("  --breaker-threshold <N>                     # Failures before a host fails fast (default: 5, 0 = off)");
                 System.out.println();
                 System.out.println("Examples:");
                 System.out.println("  mvn exec:java -Dexec.args=\"--examples --threads 20 --enable-http2\"");
@@ -167,10 +406,28 @@ public class CrawlerApp {
                 .desc("Number of threads (default: 10)")
                 .build());
                 
+        options.addOption(Option.builder()
+                .longOpt("executor")
+                .hasArg()
+                .desc("Execution mode: platform (fixed thread pool) or virtual (one virtual thread per task, Java 21+) (default: platform)")
+                .build());
+                
         options.addOption(Option.builder("r")
                 .longOpt("rate-limit")
                 .hasArg()
-                .desc("Rate limit in milliseconds between requests (default: 1000)")
+                .desc("Rate limit in milliseconds between requests to the same host (default: 1000)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("host-rate")
+                .hasArg()
+                .desc("Requests per second allowed per host (default: derived from --rate-limit)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("host-burst")
+                .hasArg()
+                .desc("Requests a host may receive back-to-back before rate limiting applies (default: 1)")
                 .build());
                 
         options.addOption(Option.builder("a")
@@ -197,6 +454,30 @@ public class CrawlerApp {
                 .desc("Exponential backoff multiplier (default: 2.0)")
                 .build());
                 
+        options.addOption(Option.builder()
+                .longOpt("breaker-threshold")
+                .hasArg()
+                .desc("Consecutive failures before a host's circuit breaker opens; 0 disables it (default: 5)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("breaker-open-ms")
+                .hasArg()
+                .desc("How long an open circuit breaker fails fast before probing the host (default: 30000)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("hedge-percentile")
+                .hasArg()
+                .desc("Send a duplicate GET when no answer arrives by this latency percentile, e.g. 95 (default: 0 = off)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("hedge-budget")
+                .hasArg()
+                .desc("Maximum fraction of requests that may be hedges (default: 0.05)")
+                .build());
+                
         // HTTP/2 and concurrency options
         options.addOption(Option.builder()
                 .longOpt("enable-http2")
@@ -221,7 +502,18 @@ public class CrawlerApp {
         options.addOption(Option.builder()
                 .longOpt("max-connections")
                 .hasArg()
-                .desc("Maximum connections per host (default: 4)")
+                .desc("Maximum in-flight requests per host; further requests are queued (default: 4)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("adaptive-concurrency")
+                .desc("Adapt per-host concurrency (AIMD): grow while latency is flat, cut on 429/503/timeouts")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("adaptive-max-connections")
+                .hasArg()
+                .desc("Upper bound for adaptive per-host concurrency (default: 64)")
                 .build());
                 
         // Guardian API specific options
@@ -240,7 +532,7 @@ public class CrawlerApp {
         options.addOption(Option.builder()
                 .longOpt("section")
                 .hasArg()
-                .desc("Guardian section filter (sport, business, world, politics, etc.)")
+                .desc("Guardian section filter (sport, business, world, politics, etc.); a comma-separated list crawls the sections concurrently")
                 .build());
                 
         options.addOption(Option.builder()
@@ -249,6 +541,53 @@ public class CrawlerApp {
                 .desc("Number of articles per request (default: 200, >200 uses pagination)")
                 .build());
                 
+        options.addOption(Option.builder()
+                .longOpt("adaptive-pages")
+                .desc("Fetch page 1 first and only request the pages the API reports (for --page-size > 200)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("shard-days")
+                .hasArg()
+                .desc("Split the date range into windows of N days crawled concurrently; dense windows are split further (default: 0 = off)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("fields")
+                .hasArg()
+                .desc("Comma-separated article fields to request (show-fields), or none (default: headline,byline,body,thumbnail)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("tags")
+                .hasArg()
+                .desc("Comma-separated article tag types to request (show-tags), or none (default: none)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("drop-paths")
+                .hasArg()
+                .desc("Comma-separated dotted JSON paths dropped while parsing responses, e.g. response.results.apiUrl")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("dedupe-bloom-fpp")
+                .hasArg()
+                .desc("De-duplicate merged articles with a Bloom filter of this false-positive rate instead of an exact id set (default: 0 = exact)")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("incremental")
+                .desc("Only fetch articles modified since the last run's checkpoint and merge them into the incremental output")
+                .build());
+                
+        options.addOption(Option.builder()
+                .longOpt("frontier")
+                .hasArg()
+                .desc("Directory of a disk-backed URL frontier; the crawl resumes from it and saves each result as it completes. " + 
+                      "All sections share the frontier; each page gets its own crawl_*.json file and pages are not merged per section")
+                .build());
+                
         return options;
     }
     
@@ -263,6 +602,7 @@ public class CrawlerApp {
                 "  java -jar api-web-crawler.jar --examples --section sport --page-size 50\n" +
                 "  java -jar api-web-crawler.jar --url https://api.github.com/repos/octocat/Hello-World\n" +
                 "  java -jar api-web-crawler.jar --examples --threads 20 --enable-http2\n" +
+                "  java -jar api-web-crawler.jar --examples --executor virtual  # Java 21+\n" +
                 "  java -jar api-web-crawler.jar --examples --enable-http2 --enable-concurrent-processing --max-connections 8\n" +
                 "  java -jar api-web-crawler.jar --examples --disable-http2  # Use HTTP/1.1 only\n" +
                 "  java -jar api-web-crawler.jar --stats\n");
@@ -271,47 +611,119 @@ public class CrawlerApp {
     private static void crawlSingleUrl(ApiCrawler crawler, JsonFileStorage storage, String url) {
         System.out.println("Crawling URL: " + url);
         
-        CrawlResult result = crawler.crawl(url);
-        storage.save(result);
+        // Fetch, parse and store as one asynchronous pipeline; only the main thread waits
+        CrawlResult result = crawler.crawlAsync(url)
+                .thenApply(crawled -> {
+                    storage.save(crawled);
+                    return crawled;
+                })
+                .join();
         
         System.out.println("Result: " + result);
         
         if (result.isSuccessful() && result.getData() != null) {
             System.out.println("Data keys: " + result.getData().keySet());
+        } else if (result.isSuccessful() && result.getBody() != null) {
+            System.out.println("Body: " + result.getBody().getClass().getSimpleName());
         }
     }
     
-    private static void runGuardianNewsCrawl(ApiCrawler crawler, JsonFileStorage storage, String fromDate, String toDate, String section, int pageSize) {
+    private static GuardianCrawlSummary runGuardianNewsCrawl(ApiCrawler crawler, JsonFileStorage storage, String fromDate, String toDate, 
+                                            String section, int pageSize, boolean adaptivePages, int shardDays, 
+                                            double dedupeBloomFpp) {
         if (section != null) {
             System.out.println("📰 Crawling Guardian " + section + " news from " + fromDate + " to " + toDate + " with enhanced features...\n");
         } else {
             System.out.println("📰 Crawling Guardian news from " + fromDate + " to " + toDate + " with enhanced features...\n");
         }
         
-        List<String> newsUrls = getGuardianUrls(fromDate, toDate, section, pageSize);
+        Map<String, CrawlResult> results = new ConcurrentHashMap<>();
+        ShardCrawl shards = shardDays > 0 
+                ? crawlGuardianShards(crawler, fromDate, toDate, section, pageSize, shardDays) 
+                : null;
+        List<String> newsUrls;
+        if (shards != null) {
+            newsUrls = List.of();
+        } else if (adaptivePages) {
+            newsUrls = discoverGuardianPages(crawler, results, fromDate, toDate, section, pageSize);
+        } else {
+            newsUrls = getGuardianUrls(fromDate, toDate, section, pageSize);
+        }
+        List<String> remainingUrls = newsUrls.stream().filter(url -> !results.containsKey(url)).toList();
         
-        // Crawl asynchronously with enhanced features
-        CompletableFuture<Map<String, CrawlResult>> future = crawler.crawlAsync(newsUrls);
+        String filename;
+        if (section != null && !section.trim().isEmpty()) {
+            filename = "guardian_" + section.trim().toLowerCase() + "_news_" + fromDate + "_to_" + toDate + ".json";
+        } else {
+            filename = "guardian_news_" + fromDate + "_to_" + toDate + ".json";
+        }
+        String label = section != null && !section.trim().isEmpty() ? "[" + section.trim().toLowerCase() + "] " : "";
         
+        int pageCount = newsUrls.size();
         try {
-            Map<String, CrawlResult> results = future.get();
             List<CrawlResult> allResults = new ArrayList<>();
             
             // Check if we have multiple paginated results to combine
-            if (newsUrls.size() > 1) {
-                // Multiple paginated requests - combine results
-                CrawlResult combinedResult = combinePaginatedResults(results, newsUrls, fromDate, toDate, section, pageSize);
+            if (shards != null || newsUrls.size() > 1) {
+                // Multiple paginated requests - merge pages into the output file as they arrive
+                CrawlResult combinedResult;
+                if (shards != null) {
+                    // Date windows stream their pages in date order as they complete
+                    combinedResult = mergePaginatedResults(storage, filename, fromDate, toDate, section, pageSize, 
+                                                           shards.total().join(), dedupeBloomFpp, merger -> {
+                        shards.drainTo((page, index) -> {
+                            merger.accept(index, page);
+                            System.out.println("📥 " + label + "Received page " + (index + 1) + 
+                                             (page.isSuccessful() ? " ✅" : " ❌ " + page.getErrorMessage()));
+                        });
+                        shards.done().join();
+                    });
+                } else {
+                    combinedResult = mergePaginatedResults(storage, filename, fromDate, toDate, section, pageSize, 
+                                                           null, dedupeBloomFpp, merger -> {
+                        Map<String, Integer> pageIndex = new HashMap<>();
+                        for (int i = 0; i < newsUrls.size(); i++) {
+                            pageIndex.putIfAbsent(newsUrls.get(i), i);
+                        }
+                        // Pages fetched while discovering the page count go first
+                        for (String url : newsUrls) {
+                            CrawlResult pageResult = results.remove(url);
+                            if (pageResult != null) {
+                                merger.accept(pageIndex.get(url), pageResult);
+                            }
+                        }
+                        
+                        ResultSubscriber subscriber = new ResultSubscriber(result -> {
+                            Integer index = pageIndex.get(result.getUrl());
+                            if (index == null) {
+                                logger.warn("No page found for URL: {}", result.getUrl());
+                                return;
+                            }
+                            merger.accept(index, result);
+                            System.out.println("📥 " + label + "Received page " + merger.received + "/" + newsUrls.size() + 
+                                             (result.isSuccessful() ? " ✅" : " ❌ " + result.getErrorMessage()));
+                        });
+                        crawler.crawlStream(remainingUrls).subscribe(subscriber);
+                        subscriber.completion().get();
+                    });
+                }
                 allResults.add(combinedResult);
+                if (shards != null) {
+                    pageCount = shards.pageCount();
+                }
                 
-                System.out.println("🔍 Combined paginated results from " + newsUrls.size() + " requests");
+                System.out.println("🔍 Combined paginated results from " + pageCount + " requests");
                 if (combinedResult.isSuccessful()) {
-                    System.out.println("✅ Success - Combined " + newsUrls.size() + " pages - Duration: " + combinedResult.getCrawlDurationMs() + "ms");
-                    showGuardianNewsData(combinedResult);
+                    System.out.println("✅ Success - Combined " + pageCount + " pages - Duration: " + combinedResult.getCrawlDurationMs() + "ms");
                 } else {
-                    System.out.println("❌ Failed to combine paginated results");
+                    System.out.println("❌ Failed to combine paginated results - " + combinedResult.getErrorMessage());
                 }
             } else {
                 // Single request - process normally
+                ResultSubscriber subscriber = new ResultSubscriber(result -> results.put(result.getUrl(), result));
+                crawler.crawlStream(remainingUrls).subscribe(subscriber);
+                subscriber.completion().get();
+                
                 for (Map.Entry<String, CrawlResult> entry : results.entrySet()) {
                     CrawlResult result = entry.getValue();
                     
@@ -331,22 +743,16 @@ public class CrawlerApp {
                     // Add to results list
                     allResults.add(result);
                 }
+                
+                // Save results to Guardian-specific file
+                storage.saveAllToSingleFile(allResults, filename);
             }
             
             System.out.println("---");
             
-            // Save results to Guardian-specific file
-            String filename;
-            if (section != null && !section.trim().isEmpty()) {
-                filename = "guardian_" + section.trim().toLowerCase() + "_news_" + fromDate + "_to_" + toDate + ".json";
-            } else {
-                filename = "guardian_news_" + fromDate + "_to_" + toDate + ".json";
-            }
-            storage.saveAllToSingleFile(allResults, filename);
-            
             System.out.println("\n📊 Crawl Summary:");
             System.out.println("================");
-            System.out.println("Total URLs: " + newsUrls.size());
+            System.out.println("Total URLs: " + pageCount);
             System.out.println("✅ Successful: " + allResults.stream().mapToInt(r -> r.isSuccessful() ? 1 : 0).sum());
             System.out.println("❌ Failed: " + allResults.stream().mapToInt(r -> r.isSuccessful() ? 0 : 1).sum());
             System.out.println("⏱️  Total Duration: " + allResults.stream().mapToLong(CrawlResult::getCrawlDurationMs).sum() + "ms");
@@ -356,64 +762,273 @@ public class CrawlerApp {
             
             System.out.println("\n✅ Guardian news crawling completed! Check the 'output' directory for JSON files.");
             
+            return new GuardianCrawlSummary(section, filename, 
+                    (int) allResults.stream().filter(CrawlResult::isSuccessful).count(),
+                    (int) allResults.stream().filter(r -> !r.isSuccessful()).count(),
+                    allResults.stream().mapToLong(CrawlerApp::countArticles).sum(),
+                    allResults.stream().mapToLong(CrawlResult::getCrawlDurationMs).sum());
         } catch (Exception e) {
             logger.error("Error running Guardian news crawls", e);
             System.err.println("Error running Guardian news crawls: " + e.getMessage());
+            return new GuardianCrawlSummary(section, filename, 0, Math.max(pageCount, 1), 0, 0);
         }
     }
     
-    private static List<String> getGuardianUrls(String fromDate, String toDate, String section, int pageSize) {
-        List<String> urls = new ArrayList<>();
+    /**
+     * Crawl several sections concurrently in this process with the given section crawl.
+     * All sections share the crawler's HTTP client, thread pool and per-host limits; each
+     * section is saved to its own file and a combined summary is printed at the end.
+     */
+    private static void runMultiSectionGuardianCrawl(List<String> sections, Function<String, GuardianCrawlSummary> crawlSection) {
+        System.out.println("📚 Crawling " + sections.size() + " sections concurrently: " + String.join(", ", sections) + "\n");
+        long startTime = System.currentTimeMillis();
         
-        // Guardian API has a maximum page-size of 200
-        int maxPageSize = 200;
+        // Each section crawl blocks while it waits for its pages, so it gets its own coordinating thread
+        ExecutorService sectionPool = Executors.newFixedThreadPool(sections.size());
+        List<GuardianCrawlSummary> summaries;
+        try {
+            List<CompletableFuture<GuardianCrawlSummary>> crawls = sections.stream()
+                    .map(section -> CompletableFuture.supplyAsync(() -> crawlSection.apply(section), sectionPool))
+                    .toList();
+            summaries = crawls.stream().map(CompletableFuture::join).toList();
+        } finally {
+            sectionPool.shutdown();
+        }
         
-        if (pageSize <= maxPageSize) {
-            // Single request - within API limits
-            StringBuilder urlBuilder = new StringBuilder();
-            urlBuilder.append("https://content.guardianapis.com/search?from-date=")
-                      .append(fromDate)
-                      .append("&to-date=")
-                      .append(toDate)
-                      .append("&show-fields=headline,byline,body,thumbnail")
-                      .append("&page-size=")
-                      .append(pageSize)
-                      .append("&api-key=test");
-            
-            // Add section filter if specified
-            if (section != null && !section.trim().isEmpty()) {
-                urlBuilder.append("&section=").append(section.trim().toLowerCase());
+        System.out.println("\n📊 Combined Summary (" + sections.size() + " sections):");
+        System.out.println("==================================");
+        for (GuardianCrawlSummary summary : summaries) {
+            System.out.println((summary.failed() == 0 ? "✅ " : "❌ ") + summary.section() + ": " + summary.articles() + 
+                             " articles, " + summary.successful() + " ok / " + summary.failed() + " failed, " + 
+                             summary.durationMs() + "ms → " + summary.filename());
+        }
+        System.out.println("📰 Total Articles: " + summaries.stream().mapToLong(GuardianCrawlSummary::articles).sum());
+        System.out.println("✅ Successful: " + summaries.stream().mapToInt(GuardianCrawlSummary::successful).sum());
+        System.out.println("❌ Failed: " + summaries.stream().mapToInt(GuardianCrawlSummary::failed).sum());
+        System.out.println("⏱️  Total Request Time: " + summaries.stream().mapToLong(GuardianCrawlSummary::durationMs).sum() + "ms");
+        System.out.println("🕐 Wall-clock Time: " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+    
+    /**
+     * Normalize a comma-separated --fields or --tags value; "none" gives an empty list
+     */
+    private static String parseFieldList(String value) {
+        if (value.trim().equalsIgnoreCase("none")) {
+            return "";
+        }
+        return String.join(",", Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList());
+    }
+    
+    /**
+     * Split a comma-separated --section value into distinct section names. No value
+     * means all sections, represented by a single null section.
+     */
+    private static List<String> parseSections(String value) {
+        Set<String> sections = new LinkedHashSet<>();
+        if (value != null) {
+            for (String section : value.split(",")) {
+                if (!section.isBlank()) {
+                    sections.add(section.trim().toLowerCase());
+                }
             }
+        }
+        if (sections.isEmpty()) {
+            return Collections.singletonList(null);
+        }
+        return new ArrayList<>(sections);
+    }
+    
+    /**
+     * Number of articles in a Guardian result, or in the summary of a merged one
+     */
+    private static long countArticles(CrawlResult result) {
+        GuardianSearchResponse.Content response = getGuardianResponse(result);
+        if (response != null) {
+            return response.results() != null ? response.results().size() : 0;
+        }
+        if (result.getData() != null && result.getData().get("response") instanceof Map<?, ?> summary 
+                && summary.get("articlesRetrieved") instanceof Number count) {
+            return count.longValue();
+        }
+        return 0;
+    }
+    
+    /**
+     * Crawl through a persistent frontier: a new frontier is seeded with the URLs, an
+     * existing one resumes with whatever is still pending. Each result is saved as it
+     * arrives, so nothing is held in memory for the whole crawl.
+     */
+    private static void runFrontierCrawl(ApiCrawler crawler, JsonFileStorage storage, String frontierDir, List<String> seedUrls) {
+        try (CrawlFrontier frontier = new CrawlFrontier(Paths.get(frontierDir), 1000)) {
+            if (frontier.size() == 0) {
+                frontier.addAll(seedUrls);
+                System.out.println("📂 Created frontier " + frontierDir + " with " + seedUrls.size() + " URLs");
+            } else {
+                System.out.println("📂 Resuming frontier " + frontierDir + ": " + frontier.getDoneCount() + " done, " + 
+                                 frontier.getFailedCount() + " failed, " + frontier.getPendingCount() + " pending");
+            }
+            
+            // A page only counts as done once it is on disk; a failed save marks it failed
+            crawler.crawlFrontier(frontier, result -> {
+                if (result.isSuccessful()) {
+                    if (!storage.save(result)) {
+                        throw new IllegalStateException("Failed to save result for URL: " + result.getUrl());
+                    }
+                } else {
+                    System.out.println("❌ Failed - " + result.getUrl() + " - Status: " + result.getStatusCode() + 
+                                     " - Error: " + result.getErrorMessage());
+                }
+            }).join();
             
-            urls.add(urlBuilder.toString());
+            System.out.println("\n📊 Frontier Summary:");
+            System.out.println("====================");
+            System.out.println("Total URLs: " + frontier.size());
+            System.out.println("✅ Done: " + frontier.getDoneCount());
+            System.out.println("❌ Failed: " + frontier.getFailedCount());
+            System.out.println("⏳ Pending: " + frontier.getPendingCount());
+        } catch (Exception e) {
+            logger.error("Error running frontier crawl", e);
+            System.err.println("Error running frontier crawl: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Incremental crawl: fetch only articles modified since the last run's checkpoint and
+     * merge them by id into the section's incremental output file. The checkpoint (last
+     * publication/modification time and ids already stored) lives next to the output.
+     */
+    private static GuardianCrawlSummary runIncrementalGuardianCrawl(ApiCrawler crawler, JsonFileStorage storage, String fromDate, 
+                                                    String toDate, String section, int pageSize) {
+        String name = (section != null && !section.trim().isEmpty()) ? "guardian_" + section.trim().toLowerCase() : "guardian";
+        String filename = name + "_news_incremental.json";
+        CrawlCheckpoint checkpoint = storage.loadCheckpoint(name);
+        
+        // Resume from the day of the last modification seen; the same day is re-read and filtered below
+        LocalDate from = LocalDate.parse(fromDate);
+        if (checkpoint != null && checkpoint.getLastModified() != null) {
+            LocalDate checkpointDay = LocalDate.parse(checkpoint.getLastModified().substring(0, 10));
+            from = checkpointDay.isAfter(from) ? checkpointDay : from;
+            System.out.println("📌 Checkpoint found: last modified " + checkpoint.getLastModified() + ", " + 
+                             checkpoint.getSeenIds().size() + " articles stored");
+        } else {
+            checkpoint = new CrawlCheckpoint();
+            System.out.println("📌 No checkpoint yet, crawling the full range");
+        }
+        LocalDate to = LocalDate.parse(toDate);
+        System.out.println("📰 Crawling Guardian articles modified from " + from + " to " + to + "...\n");
+        
+        // The whole range is one window, split only where it is too dense; each page's delta
+        // is taken as it arrives, so only the changed articles are kept
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        ShardCrawl pages = crawlGuardianShards(crawler, from, to, section, Math.min(pageSize, GUARDIAN_MAX_PAGE_SIZE), 
+                                               (int) Math.max(days, 1), true);
+        
+        // Keep articles that are new or modified after the checkpoint
+        String lastModified = checkpoint.getLastModified();
+        Set<String> seenIds = checkpoint.getSeenIds();
+        Map<String, GuardianArticle> delta = new LinkedHashMap<>();
+        int[] failedPages = {0};
+        long[] duration = {0};
+        pages.drainTo((page, index) -> {
+            duration[0] += page.getCrawlDurationMs();
+            GuardianSearchResponse.Content response = getGuardianResponse(page);
+            if (response == null || response.results() == null) {
+                failedPages[0]++;
+                return;
+            }
+            for (GuardianArticle article : response.results()) {
+                String articleModified = article.field("lastModified");
+                boolean unchanged = seenIds.contains(article.id()) && 
+                                    lastModified != null && articleModified != null && articleModified.compareTo(lastModified) <= 0;
+                if (!unchanged) {
+                    delta.put(article.id(), article);
+                }
+            }
+        });
+        pages.done().join();
+        
+        if (failedPages[0] > 0) {
+            // Keep the old checkpoint so the next run retries the missing pages
+            System.out.println("❌ " + failedPages[0] + "/" + pages.pageCount() + " pages failed, checkpoint not advanced");
+        }
+        
+        // Merge the delta into the existing output by article id, in publication order
+        Map<String, GuardianArticle> merged = new LinkedHashMap<>();
+        Map<String, GuardianSearchResponse> existing = storage.loadJson(filename, new TypeReference<>() {});
+        if (existing != null) {
+            for (GuardianSearchResponse saved : existing.values()) {
+                if (saved != null && saved.response() != null && saved.response().results() != null) {
+                    for (GuardianArticle article : saved.response().results()) {
+                        merged.put(article.id(), article);
+                    }
+                }
+            }
+        }
+        int updated = (int) delta.keySet().stream().filter(merged::containsKey).count();
+        merged.putAll(delta);
+        List<GuardianArticle> articles = new ArrayList<>(merged.values());
+        articles.sort(Comparator.comparing(article -> String.valueOf(article.webPublicationDate())));
+        
+        Map<String, Object> apiResponse = new LinkedHashMap<>();
+        apiResponse.put("status", "ok");
+        apiResponse.put("total", articles.size());
+        apiResponse.put("results", articles);
+        apiResponse.put("articlesRetrieved", articles.size());
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("content.guardianapis.com/search?incremental" + (section != null ? "&section=" + section.trim().toLowerCase() : ""), 
+                   Map.of("response", apiResponse));
+        storage.saveJson(output, filename);
+        
+        // Advance the checkpoint
+        if (failedPages[0] == 0) {
+            for (GuardianArticle article : delta.values()) {
+                checkpoint.getSeenIds().add(article.id());
+                String articleModified = article.field("lastModified");
+                if (articleModified != null && (checkpoint.getLastModified() == null || 
+                        articleModified.compareTo(checkpoint.getLastModified()) > 0)) {
+                    checkpoint.setLastModified(articleModified);
+                }
+                String published = article.webPublicationDate();
+                if (published != null && (checkpoint.getLastPublicationDate() == null || 
+                        published.compareTo(checkpoint.getLastPublicationDate()) > 0)) {
+                    checkpoint.setLastPublicationDate(published);
+                }
+            }
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            storage.saveCheckpoint(name, checkpoint);
+        }
+        
+        System.out.println("\n📊 Incremental Crawl Summary:");
+        System.out.println("============================");
+        System.out.println("Pages fetched: " + pages.pageCount());
+        System.out.println("🆕 New articles: " + (delta.size() - updated));
+        System.out.println("✏️  Updated articles: " + updated);
+        System.out.println("📚 Articles in " + filename + ": " + articles.size());
+        
+        return new GuardianCrawlSummary(section, filename, pages.pageCount() - failedPages[0], failedPages[0], 
+                                        delta.size(), duration[0]);
+    }
+    
+    private static List<String> getGuardianUrls(String fromDate, String toDate, String section, int pageSize) {
+        List<String> urls = new ArrayList<>();
+        
+        if (pageSize <= GUARDIAN_MAX_PAGE_SIZE) {
+            // Single request - within API limits
+            urls.add(buildGuardianUrl(fromDate, toDate, section, pageSize, 0));
         } else {
             // Multiple requests - pagination needed
-            int totalRequests = (int) Math.ceil((double) pageSize / maxPageSize);
+            int totalRequests = (int) Math.ceil((double) pageSize / GUARDIAN_MAX_PAGE_SIZE);
             
             System.out.println("📄 Page size (" + pageSize + ") exceeds Guardian API limit (200).");
             System.out.println("📄 Will make " + totalRequests + " paginated requests to fetch " + pageSize + " articles...\n");
             
+            // Every page uses the same page-size so page N starts at the right offset; the surplus
+            // of the last page is trimmed when the pages are merged
             for (int page = 1; page <= totalRequests; page++) {
-                int currentPageSize = Math.min(maxPageSize, pageSize - (page - 1) * maxPageSize);
-                
-                StringBuilder urlBuilder = new StringBuilder();
-                urlBuilder.append("https://content.guardianapis.com/search?from-date=")
-                          .append(fromDate)
-                          .append("&to-date=")
-                          .append(toDate)
-                          .append("&show-fields=headline,byline,body,thumbnail")
-                          .append("&page-size=")
-                          .append(currentPageSize)
-                          .append("&page=")
-                          .append(page)
-                          .append("&api-key=test");
-                
-                // Add section filter if specified
-                if (section != null && !section.trim().isEmpty()) {
-                    urlBuilder.append("&section=").append(section.trim().toLowerCase());
-                }
-                
-                urls.add(urlBuilder.toString());
+                urls.add(buildGuardianUrl(fromDate, toDate, section, GUARDIAN_MAX_PAGE_SIZE, page) + GUARDIAN_PAGE_ORDER);
             }
         }
         
@@ -421,10 +1036,281 @@ public class CrawlerApp {
     }
     
     /**
-     * Combine multiple paginated Guardian API results into a single result
+     * Adaptive pagination: fetch page 1 first, then only the pages the API reports as
+     * existing (response.pages), capped by the requested number of articles. Page 1's
+     * result is stored in the results map; the returned list holds every page URL.
+     */
+    private static List<String> discoverGuardianPages(ApiCrawler crawler, Map<String, CrawlResult> results, 
+                                                      String fromDate, String toDate, String section, int pageSize) {
+        if (pageSize <= GUARDIAN_MAX_PAGE_SIZE) {
+            return getGuardianUrls(fromDate, toDate, section, pageSize);
+        }
+        
+        String firstPageUrl = buildGuardianUrl(fromDate, toDate, section, GUARDIAN_MAX_PAGE_SIZE, 1) + GUARDIAN_PAGE_ORDER;
+        CrawlResult firstPage = crawler.crawlAsync(firstPageUrl).join();
+        results.put(firstPageUrl, firstPage);
+        
+        GuardianSearchResponse.Content response = getGuardianResponse(firstPage);
+        if (response == null || response.pages() == null) {
+            System.out.println("📄 Could not read page count from page 1, nothing more to fetch");
+            return List.of(firstPageUrl);
+        }
+        
+        int apiPages = response.pages();
+        int requestedPages = (int) Math.ceil((double) pageSize / GUARDIAN_MAX_PAGE_SIZE);
+        int lastPage = Math.max(1, Math.min(requestedPages, apiPages));
+        System.out.println("📄 API reports " + response.total() + " articles in " + apiPages + 
+                         " pages; fetching " + lastPage + " of them (requested " + requestedPages + ")\n");
+        
+        List<String> urls = new ArrayList<>();
+        urls.add(firstPageUrl);
+        for (int page = 2; page <= lastPage; page++) {
+            urls.add(buildGuardianUrl(fromDate, toDate, section, GUARDIAN_MAX_PAGE_SIZE, page) + GUARDIAN_PAGE_ORDER);
+        }
+        return urls;
+    }
+    
+    /**
+     * Date-range sharding: split the range into windows of shardDays and crawl them
+     * concurrently, each paginating on its own from page 1. Pages are handed on in date
+     * order as they complete, once a sink is attached to the returned crawl.
+     */
+    private static ShardCrawl crawlGuardianShards(ApiCrawler crawler, String fromDate, String toDate, String section, 
+                                                  int pageSize, int shardDays) {
+        LocalDate from = LocalDate.parse(fromDate);
+        LocalDate to = LocalDate.parse(toDate);
+        long windows = (ChronoUnit.DAYS.between(from, to) + shardDays) / shardDays;
+        System.out.println("🗓️ Split " + fromDate + " to " + toDate + " into " + windows + 
+                         " windows of up to " + shardDays + " days\n");
+        return crawlGuardianShards(crawler, from, to, section, Math.min(pageSize, GUARDIAN_MAX_PAGE_SIZE), shardDays, false);
+    }
+    
+    private static ShardCrawl crawlGuardianShards(ApiCrawler crawler, LocalDate from, LocalDate to, String section, 
+                                                  int perPage, int shardDays, boolean byLastModified) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(shardDays)) {
+            starts.add(start);
+        }
+        
+        ShardCrawl shards = new ShardCrawl();
+        ShardWindow[] windows = shards.start(starts.size());
+        List<CompletableFuture<Void>> crawls = new ArrayList<>();
+        for (int i = 0; i < windows.length; i++) {
+            LocalDate end = starts.get(i).plusDays(shardDays - 1L);
+            crawls.add(crawlGuardianShard(crawler, shards, windows[i], starts.get(i), end.isAfter(to) ? to : end, 
+                                          section, perPage, byLastModified, true));
+        }
+        shards.done = CompletableFuture.allOf(crawls.toArray(new CompletableFuture[0]));
+        // A window that failed before reporting its total must not leave the total pending
+        shards.done.whenComplete((v, error) -> shards.total().completeExceptionally(
+                error != null ? error : new IllegalStateException("Shard total was never reported")));
+        return shards;
+    }
+    
+    /**
+     * Crawl one date window: fetch page 1, split the window if it is too dense, otherwise
+     * fetch its remaining pages concurrently. Articles are requested oldest first so the
+     * windows concatenate in order. With byLastModified the window selects articles by
+     * modification date rather than publication date. The window's total is reported
+     * through its {@link ShardWindow#total} once page 1 has answered.
+     */
+    private static CompletableFuture<Void> crawlGuardianShard(ApiCrawler crawler, ShardCrawl shards, ShardWindow window, 
+                                                             LocalDate from, LocalDate to, String section, int perPage, 
+                                                             boolean byLastModified, boolean topLevel) {
+        String firstPageUrl = buildShardUrl(from, to, section, perPage, 1, byLastModified);
+        
+        return crawler.crawlAsync(firstPageUrl).thenCompose(firstPage -> {
+            GuardianSearchResponse.Content response = getGuardianResponse(firstPage);
+            if (response == null || response.pages() == null) {
+                System.out.println("❌ Window " + from + " to " + to + " failed: " + firstPage.getErrorMessage());
+                window.total.complete(0);
+                shards.resolve(window, 1, topLevel ? 0 : -1);
+                shards.deliver(window, 0, firstPage);
+                return CompletableFuture.completedFuture(null);
+            }
+            
+            int pages = response.pages();
+            int total = response.total() != null ? response.total() : 0;
+            window.total.complete(total);
+            long days = ChronoUnit.DAYS.between(from, to) + 1;
+            LocalDate lastDay = lastArticleDay(response.results(), byLastModified);
+            if (pages > MAX_PAGES_PER_SHARD && days > 1 && lastDay != null) {
+                return splitGuardianShard(crawler, shards, window, firstPage, response, lastDay, from, to, section, perPage, 
+                                          byLastModified, topLevel);
+            }
+            if (pages > MAX_PAGES_PER_SHARD && days > 1) {
+                // Page 1 cannot be placed by date: split in halves and let each fetch its own page 1
+                LocalDate middle = from.plusDays(days / 2 - 1);
+                ShardWindow[] halves = shards.split(window, 2, topLevel ? total : -1);
+                return CompletableFuture.allOf(
+                        crawlGuardianShard(crawler, shards, halves[0], from, middle, section, perPage, byLastModified, false),
+                        crawlGuardianShard(crawler, shards, halves[1], middle.plusDays(1), to, section, perPage, byLastModified, false));
+            }
+            
+            System.out.println("🗓️ Window " + from + " to " + to + ": " + total + " articles in " + pages + " pages");
+            shards.resolve(window, Math.max(pages, 1), topLevel ? total : -1);
+            shards.deliver(window, 0, firstPage);
+            return crawlGuardianPages(crawler, shards, window, from, to, section, perPage, pages, byLastModified);
+        });
+    }
+    
+    /**
+     * Split a dense window without wasting its page 1, which holds the window's oldest articles.
+     * The window becomes a head window that page 1 starts, followed by the rest of the range in
+     * two halves crawled on their own. If page 1 ends on a later day than it starts, the head is
+     * every day before that last day and page 1's articles from those days are all of it. If
+     * page 1 lies within the first day, the head is that day and page 1 is its first page; its
+     * page count follows from the window total minus the totals the rest's first pages report.
+     */
+    private static CompletableFuture<Void> splitGuardianShard(ApiCrawler crawler, ShardCrawl shards, ShardWindow window, 
+                                                              CrawlResult firstPage, GuardianSearchResponse.Content response, 
+                                                              LocalDate lastDay, LocalDate from, LocalDate to, String section, 
+                                                              int perPage, boolean byLastModified, boolean topLevel) {
+        int total = response.total() != null ? response.total() : 0;
+        boolean headComplete = lastDay.isAfter(from);
+        LocalDate headTo = headComplete ? lastDay.minusDays(1) : from;
+        LocalDate restFrom = headTo.plusDays(1);
+        long restDays = ChronoUnit.DAYS.between(restFrom, to) + 1;
+        ShardWindow[] parts = shards.split(window, restDays > 1 ? 3 : 2, topLevel ? total : -1);
+        
+        List<CompletableFuture<Void>> crawls = new ArrayList<>();
+        if (restDays > 1) {
+            LocalDate middle = restFrom.plusDays(restDays / 2 - 1);
+            crawls.add(crawlGuardianShard(crawler, shards, parts[1], restFrom, middle, section, perPage, byLastModified, false));
+            crawls.add(crawlGuardianShard(crawler, shards, parts[2], middle.plusDays(1), to, section, perPage, byLastModified, false));
+        } else {
+            crawls.add(crawlGuardianShard(crawler, shards, parts[1], restFrom, to, section, perPage, byLastModified, false));
+        }
+        
+        ShardWindow head = parts[0];
+        if (headComplete) {
+            List<GuardianArticle> articles = response.results().stream()
+                    .filter(article -> !articleDay(article, byLastModified).isAfter(headTo))
+                    .toList();
+            firstPage.setBody(new GuardianSearchResponse(new GuardianSearchResponse.Content(response.status(), 
+                    response.userTier(), articles.size(), 1, response.pageSize(), 1, 1, response.orderBy(), articles, 
+                    response.message(), response.otherProperties())));
+            System.out.println("🗓️ Window " + from + " to " + headTo + ": " + articles.size() + " articles from page 1");
+            shards.resolve(head, 1, -1);
+            shards.deliver(head, 0, firstPage);
+        } else {
+            CompletableFuture<Integer> restTotal = CompletableFuture.completedFuture(0);
+            for (int i = 1; i < parts.length; i++) {
+                restTotal = restTotal.thenCombine(parts[i].total, Integer::sum);
+            }
+            crawls.add(restTotal.thenCompose(rest -> {
+                int headPages = Math.max(1, (int) Math.ceil((double) (total - rest) / perPage));
+                System.out.println("🗓️ Window " + from + " to " + headTo + ": " + (total - rest) + " articles in " + 
+                                 headPages + " pages");
+                shards.resolve(head, headPages, -1);
+                shards.deliver(head, 0, firstPage);
+                return crawlGuardianPages(crawler, shards, head, from, headTo, section, perPage, headPages, byLastModified);
+            }));
+        }
+        return CompletableFuture.allOf(crawls.toArray(new CompletableFuture[0]));
+    }
+    
+    /**
+     * Fetch pages 2 to pages of a resolved window concurrently
      */
-    private static CrawlResult combinePaginatedResults(Map<String, CrawlResult> results, List<String> urls, 
-                                                      String fromDate, String toDate, String section, int requestedPageSize) {
+    private static CompletableFuture<Void> crawlGuardianPages(ApiCrawler crawler, ShardCrawl shards, ShardWindow window, 
+                                                             LocalDate from, LocalDate to, String section, int perPage, 
+                                                             int pages, boolean byLastModified) {
+        List<CompletableFuture<Void>> remaining = new ArrayList<>();
+        for (int page = 2; page <= pages; page++) {
+            int index = page - 1;
+            remaining.add(crawler.crawlAsync(buildShardUrl(from, to, section, perPage, page, byLastModified))
+                    .thenAccept(result -> shards.deliver(window, index, result)));
+        }
+        return CompletableFuture.allOf(remaining.toArray(new CompletableFuture[0]));
+    }
+    
+    /**
+     * Day of the last article of a page ordered oldest first, or null if any article has no date
+     */
+    private static LocalDate lastArticleDay(List<GuardianArticle> articles, boolean byLastModified) {
+        LocalDate last = null;
+        for (GuardianArticle article : articles != null ? articles : List.<GuardianArticle>of()) {
+            LocalDate day = articleDay(article, byLastModified);
+            if (day == null) {
+                return null;
+            }
+            last = last == null || day.isAfter(last) ? day : last;
+        }
+        return last;
+    }
+    
+    /**
+     * The date a window selects the article by: its publication or modification day
+     */
+    private static LocalDate articleDay(GuardianArticle article, boolean byLastModified) {
+        String date = byLastModified ? article.field("lastModified") : article.webPublicationDate();
+        return date != null && date.length() >= 10 ? LocalDate.parse(date.substring(0, 10)) : null;
+    }
+    
+    private static String buildShardUrl(LocalDate from, LocalDate to, String section, int perPage, int page, boolean byLastModified) {
+        if (byLastModified) {
+            String showFields = guardianShowFields.isEmpty() ? "lastModified" : guardianShowFields + ",lastModified";
+            return buildGuardianUrl(from.toString(), to.toString(), section, perPage, page, showFields) + 
+                   "&use-date=last-modified&order-by=oldest";
+        }
+        return buildGuardianUrl(from.toString(), to.toString(), section, perPage, page) + "&use-date=published&order-by=oldest";
+    }
+    
+    /**
+     * Build a Guardian search URL; page 0 leaves out the page parameter
+     */
+    private static String buildGuardianUrl(String fromDate, String toDate, String section, int pageSize, int page) {
+        return buildGuardianUrl(fromDate, toDate, section, pageSize, page, guardianShowFields);
+    }
+    
+    private static String buildGuardianUrl(String fromDate, String toDate, String section, int pageSize, int page, String showFields) {
+        StringBuilder urlBuilder = new StringBuilder();
+        urlBuilder.append("https://content.guardianapis.com/search?from-date=")
+                  .append(fromDate)
+                  .append("&to-date=")
+                  .append(toDate);
+        if (!showFields.isEmpty()) {
+            urlBuilder.append("&show-fields=").append(showFields);
+        }
+        if (!guardianShowTags.isEmpty()) {
+            urlBuilder.append("&show-tags=").append(guardianShowTags);
+        }
+        urlBuilder.append("&page-size=").append(pageSize);
+        if (page > 0) {
+            urlBuilder.append("&page=").append(page);
+        }
+        urlBuilder.append("&api-key=test");
+        
+        // Add section filter if specified
+        if (section != null && !section.trim().isEmpty()) {
+            urlBuilder.append("&section=").append(section.trim().toLowerCase());
+        }
+        
+        return urlBuilder.toString();
+    }
+    
+    /**
+     * The "response" object of a successful Guardian API result, or null
+     */
+    private static GuardianSearchResponse.Content getGuardianResponse(CrawlResult result) {
+        GuardianSearchResponse body = result.isSuccessful() ? result.getBody(GuardianSearchResponse.class) : null;
+        return body != null ? body.response() : null;
+    }
+    
+    /**
+     * Merge paginated Guardian API results into one output file. The feed hands each page
+     * to the merger as it arrives, and the merger writes it as soon as the pages before it
+     * are, so articles never pile up in memory. Returns a summary result without data.
+     * A non-null total (date-range shards) overrides the total reported by the first page;
+     * without one the pages are plain full-size pages and the output is trimmed to
+     * requestedPageSize articles. Articles are de-duplicated by id, since pages shift when
+     * articles are published mid-crawl; a positive dedupeBloomFpp trades exactness for a
+     * Bloom filter's smaller footprint.
+     */
+    private static CrawlResult mergePaginatedResults(JsonFileStorage storage, String filename, String fromDate, String toDate, 
+                                                    String section, int requestedPageSize, Integer total, 
+                                                    double dedupeBloomFpp, PageFeed feed) throws Exception {
         // Create a combined URL for the result
         String combinedUrl = "https://content.guardianapis.com/search?from-date=" + fromDate + "&to-date=" + toDate;
         if (section != null && !section.trim().isEmpty()) {
@@ -433,134 +1319,139 @@ public class CrawlerApp {
         combinedUrl += "&page-size=" + requestedPageSize + "&api-key=test";
         
         CrawlResult combinedResult = new CrawlResult(combinedUrl);
-        
-        List<Map<String, Object>> allArticles = new ArrayList<>();
-        long totalDuration = 0;
-        int successfulRequests = 0;
-        int totalArticles = 0;
-        String lastError = null;
-        
-        // Process each paginated result
-        for (String url : urls) {
-            CrawlResult pageResult = results.get(url);
-            if (pageResult != null) {
-                totalDuration += pageResult.getCrawlDurationMs();
-                
-                if (pageResult.isSuccessful() && pageResult.getData() != null) {
-                    successfulRequests++;
-                    
-                    try {
-                        // Extract articles from this page
-                        Map<String, Object> data = pageResult.getData();
-                        
-                        // The data structure is: data -> response -> results (direct, not nested under URL)
-                        if (data.containsKey("response")) {
-                            Map<String, Object> apiResponse = (Map<String, Object>) data.get("response");
-                            
-                            if (apiResponse.containsKey("results")) {
-                                List<Map<String, Object>> pageArticles = (List<Map<String, Object>>) apiResponse.get("results");
-                                allArticles.addAll(pageArticles);
-                                
-                                // Get total count from first successful response
-                                if (totalArticles == 0 && apiResponse.containsKey("total")) {
-                                    totalArticles = (Integer) apiResponse.get("total");
-                                }
-                            }
-                        } else {
-                            // Alternative: try the nested structure (data -> {url} -> response -> results)
-                            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                                Object responseObj = entry.getValue();
-                                if (responseObj instanceof Map) {
-                                    Map<String, Object> responseMap = (Map<String, Object>) responseObj;
-                                    if (responseMap.containsKey("response")) {
-                                        Map<String, Object> apiResponse = (Map<String, Object>) responseMap.get("response");
-                                        
-                                        if (apiResponse.containsKey("results")) {
-                                            List<Map<String, Object>> pageArticles = (List<Map<String, Object>>) apiResponse.get("results");
-                                            allArticles.addAll(pageArticles);
-                                            
-                                            // Get total count from first successful response
-                                            if (totalArticles == 0 && apiResponse.containsKey("total")) {
-                                                totalArticles = (Integer) apiResponse.get("total");
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error processing paginated result from {}: {}", url, e.getMessage());
-                        lastError = "Error processing page: " + e.getMessage();
-                    }
-                } else {
-                    lastError = pageResult.getErrorMessage();
-                }
-            } else {
-                logger.warn("No result found for URL: {}", url);
+        try (PaginatedResultWriter writer = storage.openPaginatedWriter(filename, combinedUrl)) {
+            GuardianPageMerger merger = new GuardianPageMerger(writer);
+            int expectedArticles = total != null ? total : requestedPageSize;
+            IdFilter seenIds = dedupeBloomFpp > 0 
+                    ? IdFilter.bloom(expectedArticles, dedupeBloomFpp) 
+                    : IdFilter.exact(expectedArticles);
+            writer.setItemFilter(item -> !(item instanceof GuardianArticle article && article.id() != null) 
+                    || seenIds.firstSeen(article.id()));
+            if (total == null) {
+                writer.setItemLimit(requestedPageSize);
             }
-        }
-        
-        // Set combined result properties
-        combinedResult.setCrawlDurationMs(totalDuration);
-        
-        if (successfulRequests > 0) {
-            // Create combined response structure
-            Map<String, Object> combinedData = new HashMap<>();
-            Map<String, Object> combinedResponse = new HashMap<>();
-            Map<String, Object> apiResponse = new HashMap<>();
-            
-            apiResponse.put("status", "ok");
-            apiResponse.put("total", totalArticles);
-            apiResponse.put("results", allArticles);
-            apiResponse.put("pages", urls.size());
-            apiResponse.put("pagesCombined", successfulRequests);
-            apiResponse.put("articlesRetrieved", allArticles.size());
             
-            combinedResponse.put("response", apiResponse);
-            combinedData.put(combinedUrl, combinedResponse);
+            feed.feed(merger);
             
-            combinedResult.setData(combinedData);
-            combinedResult.setStatusCode(200);
+            int totalArticles = total != null ? total : merger.totalArticles;
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("status", merger.successfulRequests > 0 ? "ok" : "error");
+            summary.put("total", totalArticles);
+            summary.put("pages", merger.received);
+            summary.put("pagesCombined", merger.successfulRequests);
+            summary.put("articlesRetrieved", writer.getItemsWritten());
+            summary.put("duplicatesRemoved", writer.getItemsSkipped());
+            writer.finish(summary);
             
-            System.out.println("📄 Successfully combined " + successfulRequests + "/" + urls.size() + " pages");
-            System.out.println("📄 Retrieved " + allArticles.size() + " articles out of " + totalArticles + " total available");
-        } else {
-            // All requests failed
-            combinedResult.setStatusCode(400);
-            combinedResult.setErrorMessage("All paginated requests failed. Last error: " + lastError);
+            // The articles are on disk; the result only carries the summary
+            combinedResult.setData(Map.of("response", summary));
+            combinedResult.setCrawlDurationMs(merger.totalDuration);
+            if (merger.successfulRequests > 0) {
+                combinedResult.setStatusCode(200);
+                System.out.println("📄 Successfully combined " + merger.successfulRequests + "/" + merger.received + " pages");
+                System.out.println("📄 Retrieved " + writer.getItemsWritten() + " articles out of " + totalArticles + " total available");
+                if (writer.getItemsSkipped() > 0) {
+                    System.out.println("🧹 Removed " + writer.getItemsSkipped() + " duplicate articles");
+                }
+                showArticleHeadlines(merger.preview, writer.getItemsWritten());
+            } else {
+                // All requests failed
+                combinedResult.setStatusCode(400);
+                combinedResult.setErrorMessage("All paginated requests failed. Last error: " + merger.lastError);
+            }
         }
-        
         return combinedResult;
     }
     
-    private static void showGuardianNewsData(CrawlResult result) {
-        Map<String, Object> data = result.getData();
-        String url = result.getUrl();
+    /**
+     * Source of the pages merged by {@link #mergePaginatedResults}; returns once every page was handed in
+     */
+    @FunctionalInterface
+    private interface PageFeed {
+        void feed(GuardianPageMerger merger) throws Exception;
+    }
+    
+    /**
+     * Hands each page's articles to the writer in page order and keeps the counts
+     * and the first few articles for the summary
+     */
+    private static final class GuardianPageMerger {
+        private final PaginatedResultWriter writer;
+        private List<GuardianArticle> preview = List.of(); // First articles of the earliest page merged
+        private int previewPage = Integer.MAX_VALUE;
+        private int received;
+        private int successfulRequests;
+        private int totalArticles;
+        private long totalDuration;
+        private String lastError;
         
-        try {
-            if (url.contains("guardian")) {
-                Map<String, Object> response = (Map<String, Object>) data.get("response");
-                List<?> results = (List<?>) response.get("results");
-                Integer total = (Integer) response.get("total");
-                
-                System.out.println("📰 Guardian News (" + url + "): Found " + results.size() + " articles out of " + total + " total");
-                
-                // Show first few article headlines
-                for (int i = 0; i < Math.min(3, results.size()); i++) {
-                    Map<String, Object> article = (Map<String, Object>) results.get(i);
-                    String headline = (String) article.get("webTitle");
-                    String section = (String) article.get("sectionName");
-                    System.out.println("   📝 [" + section + "] " + headline);
-                }
+        GuardianPageMerger(PaginatedResultWriter writer) {
+            this.writer = writer;
+        }
+        
+        /**
+         * Merge the page at the given index (0-based); pages may arrive in any order
+         */
+        void accept(int index, CrawlResult pageResult) {
+            received++;
+            totalDuration += pageResult.getCrawlDurationMs();
+            
+            List<GuardianArticle> pageArticles = null;
+            GuardianSearchResponse.Content apiResponse = getGuardianResponse(pageResult);
+            if (apiResponse != null && apiResponse.results() != null) {
+                pageArticles = apiResponse.results();
+                successfulRequests++;
                 
-                if (results.size() > 3) {
-                    System.out.println("   ... and " + (results.size() - 3) + " more articles");
+                // Get total count from first successful response
+                if (totalArticles == 0 && apiResponse.total() != null) {
+                    totalArticles = apiResponse.total();
                 }
+            } else if (pageResult.isSuccessful()) {
+                logger.warn("No Guardian results in paginated result from {}", pageResult.getUrl());
+                lastError = "Page " + (index + 1) + " has no Guardian results";
+            } else {
+                lastError = pageResult.getErrorMessage();
             }
             
-        } catch (Exception e) {
-            logger.debug("Error displaying Guardian news data for {}: {}", url, e.getMessage());
-            System.out.println("📰 Guardian data available (parsing error)");
+            if (pageArticles != null && index < previewPage) {
+                preview = new ArrayList<>(pageArticles.subList(0, Math.min(3, pageArticles.size())));
+                previewPage = index;
+            }
+            try {
+                writer.writePage(index, pageArticles);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write page " + (index + 1), e);
+            }
+            // The page is on disk now; drop its parsed body
+            pageResult.setBody(null);
+            pageResult.setData(null);
+        }
+    }
+    
+    private static void showGuardianNewsData(CrawlResult result) {
+        GuardianSearchResponse.Content response = getGuardianResponse(result);
+        if (response == null || response.results() == null) {
+            System.out.println("📰 Guardian data available (no search results)");
+            return;
+        }
+        
+        List<GuardianArticle> results = response.results();
+        System.out.println("📰 Guardian News (" + result.getUrl() + "): Found " + results.size() + " articles out of " + 
+                         response.total() + " total");
+        showArticleHeadlines(results, results.size());
+    }
+    
+    /**
+     * Show the first few article headlines out of the given number of articles
+     */
+    private static void showArticleHeadlines(List<GuardianArticle> articles, long articleCount) {
+        for (int i = 0; i < Math.min(3, articles.size()); i++) {
+            GuardianArticle article = articles.get(i);
+            System.out.println("   📝 [" + article.sectionName() + "] " + article.webTitle());
+        }
+        
+        if (articleCount > 3) {
+            System.out.println("   ... and " + (articleCount - 3) + " more articles");
         }
     }
     
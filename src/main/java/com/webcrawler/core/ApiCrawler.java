@@ -1,7 +1,5 @@
 package com.webcrawler.core;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webcrawler.model.CrawlResult;
 import org.slf4j.Logger;
@@ -12,15 +10,24 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -29,6 +36,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 /**
@@ -38,15 +47,26 @@ public class ApiCrawler {
     
     private static final Logger logger = LoggerFactory.getLogger(ApiCrawler.class);
     
+    // Longest Retry-After / quota reset we are willing to wait for before giving up on a URL
+    private static final long MAX_SERVER_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+    
     private final HttpClient httpClient;
     private final HttpClient http2Client; // Dedicated HTTP/2 client
-    private final ObjectMapper objectMapper;
-    private final ThreadPoolExecutor executorService;
+    private final ExecutorService executorService; // Platform pool or virtual-thread-per-task executor
+    private final ExecutionMode executionMode;
     private final ForkJoinPool processingPool; // For parallel response processing
     private final ScheduledExecutorService monitoringService;
+    private final ScheduledExecutorService schedulerService; // For delayed, thread-free continuations
+    private final HostRateLimiter rateLimiter;
+    private final HostConcurrencyLimiter concurrencyLimiter;
+    private final HostCircuitBreaker circuitBreaker;
+    private final RequestHedger hedger; // Hedged GETs, disabled until configured
+    private final SingleFlight<CrawlResult> inFlightCrawls; // Shares one fetch between concurrent identical GETs
+    private final DecodingBodyHandler bodyHandler; // Inflates gzip/deflate bodies as they stream in
     private final Map<String, String> defaultHeaders;
     private final AtomicLong requestCount;
-    private final long rateLimitDelayMs;
+    private final JsonDecoder jsonDecoder; // Shared one-pass body decoding with cached readers
+    private final Map<String, Class<?>> responseTypes = new ConcurrentHashMap<>(); // Host -> type successful bodies are bound to
     
     // Advanced scalability settings
     private final int maxConnectionsPerHost;
@@ -65,6 +85,7 @@ public class ApiCrawler {
     private final long baseRetryDelayMs;
     private final double backoffMultiplier;
     private final Set<Integer> retryableStatusCodes;
+    private final Set<Integer> overloadStatusCodes; // Subset of retryable codes that shrink a host's concurrency
     
     // Configuration
     private String userAgent = "ApiWebCrawler/1.0";
@@ -84,9 +105,15 @@ public class ApiCrawler {
     public ApiCrawler(int threadPoolSize, long rateLimitDelayMs, int maxRetries, long baseRetryDelayMs, 
                      double backoffMultiplier, boolean enableHttp2, boolean enableConcurrentProcessing, 
                      int maxConnectionsPerHost) {
+        this(threadPoolSize, rateLimitDelayMs, maxRetries, baseRetryDelayMs, backoffMultiplier, 
+             enableHttp2, enableConcurrentProcessing, maxConnectionsPerHost, ExecutionMode.PLATFORM);
+    }
+    
+    public ApiCrawler(int threadPoolSize, long rateLimitDelayMs, int maxRetries, long baseRetryDelayMs, 
+                     double backoffMultiplier, boolean enableHttp2, boolean enableConcurrentProcessing, 
+                     int maxConnectionsPerHost, ExecutionMode executionMode) {
         
         this.originalThreadPoolSize = threadPoolSize;
-        this.rateLimitDelayMs = rateLimitDelayMs;
         this.maxRetries = maxRetries;
         this.baseRetryDelayMs = baseRetryDelayMs;
         this.backoffMultiplier = backoffMultiplier;
@@ -95,33 +122,48 @@ public class ApiCrawler {
         this.maxConnectionsPerHost = maxConnectionsPerHost;
         this.processingParallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
         
+        this.jsonDecoder = new JsonDecoder(new ObjectMapper());
+        this.executionMode = resolveExecutionMode(executionMode);
+        this.executorService = this.executionMode == ExecutionMode.VIRTUAL
+                ? new VirtualThreadExecutor("virtual-crawler-thread-")
+                : createRobustThreadPool(threadPoolSize);
+        
         // Initialize HTTP clients with advanced features
         this.httpClient = createAdvancedHttpClient(false);
         this.http2Client = enableHttp2 ? createAdvancedHttpClient(true) : this.httpClient;
         
-        this.objectMapper = new ObjectMapper();
-        this.executorService = createRobustThreadPool(threadPoolSize);
         this.processingPool = new ForkJoinPool(processingParallelism);
         this.monitoringService = Executors.newScheduledThreadPool(1, new MonitoringThreadFactory());
+        this.schedulerService = Executors.newScheduledThreadPool(1, new SchedulerThreadFactory());
+        // The legacy delay between requests becomes the per-host refill interval
+        this.rateLimiter = new HostRateLimiter(rateLimitDelayMs > 0 ? 1000.0 / rateLimitDelayMs : 0, 1, schedulerService);
+        this.concurrencyLimiter = new HostConcurrencyLimiter(maxConnectionsPerHost);
+        this.circuitBreaker = new HostCircuitBreaker(5, 30_000);
+        this.hedger = new RequestHedger(0, 0, schedulerService);
+        this.bodyHandler = new DecodingBodyHandler();
+        this.inFlightCrawls = new SingleFlight<>();
         this.defaultHeaders = new HashMap<>();
         this.requestCount = new AtomicLong(0);
         
         // Thread monitoring
-        this.threadsCreated = new AtomicInteger(threadPoolSize);
+        this.threadsCreated = new AtomicInteger(this.executionMode == ExecutionMode.VIRTUAL ? 0 : threadPoolSize);
         this.threadsReplaced = new AtomicInteger(0);
         this.lastHealthCheck = new AtomicLong(System.currentTimeMillis());
         
         this.retryableStatusCodes = initializeRetryableStatusCodes();
+        this.overloadStatusCodes = Set.of(429, 503, 504, 408);
         
         initializeDefaultHeaders();
         startThreadPoolMonitoring();
         
         logger.info("🚀 Enhanced ApiCrawler initialized:");
-        logger.info("   Thread Pool Size: {}", threadPoolSize);
+        logger.info("   Execution Mode: {}", this.executionMode);
+        logger.info("   Thread Pool Size: {}", this.executionMode == ExecutionMode.VIRTUAL ? "unbounded (virtual)" : threadPoolSize);
         logger.info("   HTTP/2 Enabled: {}", enableHttp2);
         logger.info("   Concurrent Processing: {}", enableConcurrentProcessing);
         logger.info("   Max Connections per Host: {}", maxConnectionsPerHost);
         logger.info("   Processing Parallelism: {}", processingParallelism);
+        logger.info("   Per-host Rate Limit: {}/s (burst {})", rateLimiter.getPermitsPerSecond(), rateLimiter.getBurst());
     }
     
     /**
@@ -130,7 +172,8 @@ public class ApiCrawler {
     private HttpClient createAdvancedHttpClient(boolean forceHttp2) {
         HttpClient.Builder builder = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
-                .followRedirects(HttpClient.Redirect.NORMAL);
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executorService); // Async completions run on the crawler pool
         
         if (forceHttp2) {
             builder.version(HttpClient.Version.HTTP_2);
@@ -142,6 +185,18 @@ public class ApiCrawler {
         return builder.build();
     }
     
+    /**
+     * Fall back to platform threads when virtual threads are requested on a JVM without them
+     */
+    private ExecutionMode resolveExecutionMode(ExecutionMode requested) {
+        if (requested == ExecutionMode.VIRTUAL && !VirtualThreadExecutor.isSupported()) {
+            logger.warn("⚠️ Virtual threads require Java 21+, running on {}. Falling back to platform threads.", 
+                       Runtime.version());
+            return ExecutionMode.PLATFORM;
+        }
+        return requested;
+    }
+    
     private Set<Integer> initializeRetryableStatusCodes() {
         Set<Integer> codes = new HashSet<>();
         // Server errors (5xx)
@@ -167,33 +222,94 @@ public class ApiCrawler {
         defaultHeaders.put("User-Agent", userAgent);
         defaultHeaders.put("Accept", "application/json, text/plain, */*");
         defaultHeaders.put("Accept-Language", "en-US,en;q=0.9");
+        // HttpClient does not decompress on its own; bodyHandler decodes what is advertised here
+        defaultHeaders.put("Accept-Encoding", DecodingBodyHandler.ACCEPT_ENCODING);
         defaultHeaders.put("Cache-Control", "no-cache");
     }
     
     /**
-     * Simple rate limiting - wait between requests
+     * Extract the host used for per-host rate limiting and grouping
      */
-    private void enforceRateLimit() {
+    private String hostOf(String url) {
         try {
-            Thread.sleep(rateLimitDelayMs);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("Rate limiting interrupted");
+            String host = URI.create(url).getHost();
+            return host != null ? host : "unknown";
+        } catch (Exception e) {
+            return "unknown";
         }
     }
     
     /**
-     * Wait with exponential backoff for retries
+     * Key identifying a GET for coalescing: the normalized URL (lower-case scheme and host,
+     * no default port or fragment) plus the effective request headers
      */
-    private void waitForRetry(int attemptNumber) {
-        long delay = (long) (baseRetryDelayMs * Math.pow(backoffMultiplier, attemptNumber));
-        logger.info("Waiting {}ms before retry attempt #{}", delay, attemptNumber + 1);
+    private String requestKey(String url, Map<String, String> customHeaders) {
+        String normalized = url;
         try {
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("Retry wait interrupted");
+            URI uri = URI.create(url).normalize();
+            if (uri.getScheme() != null && uri.getHost() != null) {
+                String scheme = uri.getScheme().toLowerCase();
+                int port = uri.getPort();
+                if ((scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443)) {
+                    port = -1;
+                }
+                String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+                normalized = scheme + "://" + uri.getHost().toLowerCase() + (port != -1 ? ":" + port : "") + path + 
+                             (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed URLs are keyed as given; the request itself will report the error
+        }
+        
+        Map<String, String> headers = new TreeMap<>();
+        defaultHeaders.forEach((name, value) -> headers.put(name.toLowerCase(), value));
+        if (customHeaders != null) {
+            customHeaders.forEach((name, value) -> headers.put(name.toLowerCase(), value));
         }
+        return headers.isEmpty() ? normalized : normalized + " " + headers;
+    }
+    
+    /**
+     * Unwrap the exception carried by a failed future
+     */
+    private Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    /**
+     * Back-off the server asked for via Retry-After or exhausted quota headers, or -1 if none
+     */
+    private long serverRetryDelayMs(CrawlResult result) {
+        long now = System.currentTimeMillis();
+        long retryAfter = RateLimitHeaders.retryAfterMillis(result.getHeaders(), now);
+        return retryAfter >= 0 ? retryAfter : RateLimitHeaders.quotaResetMillis(result.getHeaders(), now);
+    }
+    
+    /**
+     * Schedule the back-off for a retry on the scheduler instead of sleeping a worker thread.
+     * A server-provided delay replaces the exponential schedule.
+     */
+    private CompletableFuture<Void> scheduleRetry(int attemptNumber, long serverDelayMs) {
+        long delay;
+        if (serverDelayMs >= 0) {
+            delay = serverDelayMs;
+            logger.info("Waiting {}ms (server requested) before retry attempt #{}", delay, attemptNumber + 1);
+        } else {
+            delay = (long) (baseRetryDelayMs * Math.pow(backoffMultiplier, attemptNumber));
+            logger.info("Waiting {}ms before retry attempt #{}", delay, attemptNumber + 1);
+        }
+        
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        try {
+            schedulerService.schedule(() -> timer.complete(null), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Retry scheduling rejected, crawler is shutting down");
+            timer.completeExceptionally(e);
+        }
+        return timer;
     }
     
     /**
@@ -232,31 +348,28 @@ public class ApiCrawler {
      * Crawl a single API endpoint with custom headers
      */
     public CrawlResult crawl(String url, Map<String, String> customHeaders) {
-        return crawlWithRetry(url, customHeaders);
+        return crawlAsync(url, customHeaders).join();
     }
     
     /**
-     * Crawl with automatic retry and exponential backoff
+     * Crawl with automatic retry and exponential backoff.
+     * Each retry is chained on a scheduled timer, so a backing-off request holds no thread.
      */
-    private CrawlResult crawlWithRetry(String url, Map<String, String> customHeaders) {
-        CrawlResult lastResult = null;
-        
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
-            lastResult = attemptCrawl(url, customHeaders, attempt);
-            
+    private CompletableFuture<CrawlResult> crawlWithRetry(String url, Map<String, String> customHeaders, int attempt) {
+        return attemptCrawl(url, customHeaders, attempt).thenCompose(lastResult -> {
             // If successful, return immediately
             if (lastResult.isSuccessful()) {
                 if (attempt > 0) {
                     logger.info("✅ Successfully crawled URL: {} after {} retries", url, attempt);
                 }
-                return lastResult;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
             // If this was the last attempt, don't retry
             if (attempt == maxRetries) {
                 logger.error("❌ Failed to crawl URL: {} after {} attempts. Final error: {}", 
                            url, maxRetries + 1, lastResult.getErrorMessage());
-                break;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
             // Determine if we should retry
@@ -278,33 +391,121 @@ public class ApiCrawler {
             if (!shouldRetryThis) {
                 logger.warn("❌ Non-retryable error for URL: {} - Status: {}, Error: {}", 
                           url, lastResult.getStatusCode(), lastResult.getErrorMessage());
-                break;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
-            // Wait before retry (with exponential backoff)
-            waitForRetry(attempt);
+            // Honor the server's back-off hint unless it is too long to be worth waiting for
+            long serverDelayMs = serverRetryDelayMs(lastResult);
+            if (serverDelayMs > MAX_SERVER_RETRY_DELAY_MS) {
+                logger.warn("❌ Server asked to wait {}ms before retrying URL: {}, giving up", serverDelayMs, url);
+                return CompletableFuture.completedFuture(lastResult);
+            }
+            
+            // Retry after backoff; if the timer cannot be scheduled keep the last result
+            CompletableFuture<CrawlResult> retry = scheduleRetry(attempt, serverDelayMs)
+                    .thenCompose(v -> crawlWithRetry(url, customHeaders, attempt + 1));
+            return retry.exceptionally(e -> lastResult);
+        });
+    }
+    
+    /**
+     * Admit one request to a host: wait for an in-flight slot, then a rate limit permit,
+     * then send unless the host's circuit breaker is open. The slot is released when the
+     * request completes, whatever the outcome, and the outcome is fed back into the
+     * host's circuit breaker and adaptive concurrency limit.
+     */
+    private CompletableFuture<CrawlResult> admit(String url, Supplier<CompletableFuture<CrawlResult>> request) {
+        String host = hostOf(url);
+        if (circuitBreaker.isRejecting(host)) {
+            return CompletableFuture.completedFuture(circuitOpenResult(url, host));
         }
         
-        return lastResult;
+        return concurrencyLimiter.acquire(host).thenCompose(slot -> {
+            CompletableFuture<CrawlResult> sent;
+            try {
+                sent = rateLimiter.acquire(host).thenCompose(permit -> {
+                    // The breaker may have opened while this request was queued
+                    if (!circuitBreaker.allowRequest(host)) {
+                        return CompletableFuture.completedFuture(circuitOpenResult(url, host));
+                    }
+                    long sentAt = System.nanoTime();
+                    return request.get().whenComplete((result, error) -> 
+                        recordHostOutcome(host, result, error, System.nanoTime() - sentAt));
+                });
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            return sent.whenComplete((result, error) -> concurrencyLimiter.release(host));
+        });
     }
     
     /**
-     * Single crawl attempt with enhanced concurrency and HTTP/2 support
+     * Result returned without sending when the host's circuit breaker rejects the request
      */
-    private CrawlResult attemptCrawl(String url, Map<String, String> customHeaders, int attemptNumber) {
+    private CrawlResult circuitOpenResult(String url, String host) {
+        logger.debug("🚫 Failing fast for URL: {} - circuit breaker {} for host {}", url, circuitBreaker.getState(host), host);
         CrawlResult result = new CrawlResult(url);
-        long startTime = System.currentTimeMillis();
+        result.setErrorMessage("Circuit breaker " + circuitBreaker.getState(host) + " for host " + host + 
+                               " - request not sent");
+        return result;
+    }
+    
+    /**
+     * Classify a finished request for the per-host controls: server back-off headers pause
+     * the whole host, overload signals (429, 503, timeouts) cut its concurrency limit and
+     * fast successes grow it
+     */
+    private void recordHostOutcome(String host, CrawlResult result, Throwable error, long latencyNanos) {
+        if (result != null && result.getHeaders() != null) {
+            long now = System.currentTimeMillis();
+            long pauseMs = RateLimitHeaders.retryAfterMillis(result.getHeaders(), now);
+            if (pauseMs < 0 || !overloadStatusCodes.contains(result.getStatusCode())) {
+                // Retry-After only pauses the host on overload responses; exhausted quota always does
+                pauseMs = RateLimitHeaders.quotaResetMillis(result.getHeaders(), now);
+            }
+            if (pauseMs > 0 && pauseMs <= MAX_SERVER_RETRY_DELAY_MS) {
+                rateLimiter.pauseHost(host, pauseMs);
+            }
+        }
         
-        try {
-            // Simple rate limiting (only on first attempt to avoid double delay)
-            if (attemptNumber == 0 && requestCount.get() > 0) {
-                enforceRateLimit();
+        // Server errors and network failures count against the breaker; any other answer shows the host is alive
+        boolean hostFailure = error != null || result == null 
+                || shouldRetry(result.getStatusCode()) 
+                || (result.getStatusCode() == 0 && result.getErrorMessage() != null);
+        if (hostFailure) {
+            circuitBreaker.recordFailure(host);
+        } else {
+            circuitBreaker.recordSuccess(host);
+        }
+        
+        if (isOverloadSignal(result, error)) {
+            concurrencyLimiter.onOverload(host);
+        } else if (result != null && result.isSuccessful()) {
+            concurrencyLimiter.onSuccess(host, latencyNanos);
+        }
+    }
+    
+    private boolean isOverloadSignal(CrawlResult result, Throwable error) {
+        String message = error != null ? unwrap(error).toString() : (result != null ? result.getErrorMessage() : null);
+        if (message != null) {
+            String lower = message.toLowerCase();
+            if (lower.contains("timeout") || lower.contains("timed out")) {
+                return true;
             }
-            
-            if (attemptNumber == 0) {
+        }
+        return result != null && overloadStatusCodes.contains(result.getStatusCode());
+    }
+    
+    /**
+     * Single crawl attempt with enhanced concurrency and HTTP/2 support.
+     * The attempt waits for a per-host slot and rate limit permit instead of sleeping.
+     */
+    private CompletableFuture<CrawlResult> attemptCrawl(String url, Map<String, String> customHeaders, int attemptNumber) {
+        if (attemptNumber == 0) {
             requestCount.incrementAndGet();
-            }
-            
+        }
+        
+        return admit(url, () -> {
             if (attemptNumber == 0) {
                 logger.info("🔍 Crawling URL: {} (HTTP/2: {})", url, enableHttp2);
             } else {
@@ -313,81 +514,96 @@ public class ApiCrawler {
             
             // Use advanced crawling with concurrent processing
             if (enableConcurrentProcessing) {
-                return attemptConcurrentCrawl(url, customHeaders, result, startTime);
+                return attemptConcurrentCrawl(url, customHeaders);
             } else {
-                return attemptStandardCrawl(url, customHeaders, result, startTime);
+                return attemptStandardCrawl(url, customHeaders);
             }
-            
-        } catch (Exception e) {
-            logger.warn("🔧 Error in crawl attempt for URL: {} - {}", url, e.getMessage());
-            result.setErrorMessage(e.getMessage());
-            result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
+        }).exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.warn("🔧 Error in crawl attempt for URL: {} - {}", url, cause.getMessage());
+            CrawlResult result = new CrawlResult(url);
+            result.setErrorMessage(cause.getMessage());
             return result;
-        }
+        });
     }
     
     /**
-     * Standard sequential crawling approach
+     * Standard crawling approach - response is processed on the HTTP client's thread
      */
-    private CrawlResult attemptStandardCrawl(String url, Map<String, String> customHeaders, CrawlResult result, long startTime) {
-        try {
-            HttpRequest request = buildHttpRequest(url, customHeaders);
-            HttpClient clientToUse = enableHttp2 ? http2Client : httpClient;
-            
-            HttpResponse<String> response = clientToUse.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            processResponse(response, result);
-            
-        } catch (IOException | InterruptedException e) {
-            logger.warn("🔧 Network error crawling URL: {} - {}", url, e.getMessage());
-            result.setErrorMessage(e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-            }
-        } finally {
-            result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
-        }
+    private CompletableFuture<CrawlResult> attemptStandardCrawl(String url, Map<String, String> customHeaders) {
+        CrawlResult result = new CrawlResult(url);
+        long startTime = System.currentTimeMillis();
         
-        return result;
+        HttpRequest request = buildHttpRequest(url, customHeaders);
+        HttpClient clientToUse = enableHttp2 ? http2Client : httpClient;
+        
+        return sendGet(clientToUse, request)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        logger.warn("🔧 Network error crawling URL: {} - {}", url, cause.getMessage());
+                        result.setErrorMessage(cause.getMessage());
+                    } else {
+                        processResponse(response, result);
+                    }
+                    result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
+                    return result;
+                });
     }
     
     /**
      * Enhanced concurrent crawling with parallel processing
      */
-    private CrawlResult attemptConcurrentCrawl(String url, Map<String, String> customHeaders, CrawlResult result, long startTime) {
-        try {
-            HttpRequest request = buildHttpRequest(url, customHeaders);
-            HttpClient clientToUse = enableHttp2 ? http2Client : httpClient;
-            
-            // Concurrent download and processing
-            CompletableFuture<HttpResponse<String>> downloadFuture = 
-                clientToUse.sendAsync(request, HttpResponse.BodyHandlers.ofString());
-            
-            // Process response when download completes
-            CompletableFuture<Void> processingFuture = downloadFuture.thenAcceptAsync(response -> {
-                try {
-                    processResponse(response, result);
-                    logger.debug("⚡ Concurrent processing completed for URL: {}", url);
-                } catch (Exception e) {
-                    logger.warn("🔧 Error in concurrent processing for URL: {} - {}", url, e.getMessage());
-                    result.setErrorMessage("Processing error: " + e.getMessage());
-                }
-            }, processingPool);
-            
-            // Wait for both download and processing to complete
-            processingFuture.get(45, TimeUnit.SECONDS); // Slightly longer timeout for concurrent operations
-            
-        } catch (Exception e) {
-            logger.warn("🔧 Error in concurrent crawl for URL: {} - {}", url, e.getMessage());
-            result.setErrorMessage(e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-            }
-        } finally {
-            result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
-        }
+    private CompletableFuture<CrawlResult> attemptConcurrentCrawl(String url, Map<String, String> customHeaders) {
+        CrawlResult result = new CrawlResult(url);
+        long startTime = System.currentTimeMillis();
         
-        return result;
+        HttpRequest request = buildHttpRequest(url, customHeaders);
+        HttpClient clientToUse = enableHttp2 ? http2Client : httpClient;
+        
+        // Concurrent download and processing
+        return sendGet(clientToUse, request)
+                .thenApplyAsync(response -> {
+                    try {
+                        processResponse(response, result);
+                        logger.debug("⚡ Concurrent processing completed for URL: {}", url);
+                    } catch (Exception e) {
+                        logger.warn("🔧 Error in concurrent processing for URL: {} - {}", url, e.getMessage());
+                        result.setErrorMessage("Processing error: " + e.getMessage());
+                    }
+                    return result;
+                }, processingPool)
+                .orTimeout(45, TimeUnit.SECONDS) // Slightly longer timeout for concurrent operations
+                .handle((processed, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        logger.warn("🔧 Error in concurrent crawl for URL: {} - {}", url, cause.getMessage());
+                        result.setErrorMessage(cause.toString());
+                    }
+                    result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
+                    return result;
+                });
+    }
+    
+    /**
+     * Send a GET, hedged when hedging is enabled. A hedge takes a host concurrency slot and a
+     * rate limit permit only if both are free right now, so it never delays regular traffic
+     * to the host; its slot is released once it completes or is cancelled.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendGet(HttpClient client, HttpRequest request) {
+        String host = request.uri().getHost();
+        return hedger.send(() -> client.sendAsync(request, bodyHandler), () -> {
+            if (!concurrencyLimiter.tryAcquire(host)) {
+                return null;
+            }
+            if (!rateLimiter.tryAcquire(host)) {
+                concurrencyLimiter.release(host);
+                return null;
+            }
+            CompletableFuture<HttpResponse<byte[]>> hedge = client.sendAsync(request, bodyHandler);
+            hedge.whenComplete((response, error) -> concurrencyLimiter.release(host));
+            return hedge;
+        });
     }
     
     /**
@@ -411,16 +627,13 @@ public class ApiCrawler {
                 }
             }
             
-        // Note: HttpClient automatically handles compression (gzip, deflate, br)
-        // No need to explicitly set Accept-Encoding as it can cause decompression issues
-        
         return requestBuilder.build();
     }
     
     /**
      * Process HTTP response with optional parallel JSON parsing
      */
-    private void processResponse(HttpResponse<String> response, CrawlResult result) {
+    private void processResponse(HttpResponse<byte[]> response, CrawlResult result) {
             result.setStatusCode(response.statusCode());
             
             // Extract response headers
@@ -430,16 +643,20 @@ public class ApiCrawler {
             });
             result.setHeaders(responseHeaders);
             
-            String responseBody = response.body();
+            byte[] responseBody = response.body();
+            Charset charset = DecodingBodyHandler.charsetOf(response.headers());
             
         // Enhanced JSON parsing
-            if (responseBody != null && !responseBody.trim().isEmpty()) {
-            if (enableConcurrentProcessing && responseBody.length() > 10000) {
+            if (responseBody != null && !isBlank(responseBody)) {
+            Class<?> responseType = result.isSuccessful() ? responseTypes.get(hostOf(result.getUrl()).toLowerCase()) : null;
+            if (responseType != null && processTypedResponse(responseBody, charset, responseType, result)) {
+                logger.debug("Bound response to {}", responseType.getSimpleName());
+            } else if (enableConcurrentProcessing && responseBody.length > 10000) {
                 // Use parallel processing for large responses
-                processLargeJsonResponse(responseBody, result);
+                processLargeJsonResponse(responseBody, charset, result);
             } else {
                 // Standard processing for smaller responses
-                processStandardJsonResponse(responseBody, result);
+                processStandardJsonResponse(responseBody, charset, result);
             }
         }
         
@@ -452,63 +669,79 @@ public class ApiCrawler {
     }
     
     /**
-     * Standard JSON processing with compression detection
+     * Bind a body straight to its registered type; returns false so the caller falls
+     * back to the untyped map when the body does not fit the type
      */
-    private void processStandardJsonResponse(String responseBody, CrawlResult result) {
+    private boolean processTypedResponse(byte[] responseBody, Charset charset, Class<?> type, CrawlResult result) {
         try {
-            // Check if response appears to be compressed binary data
-            if (responseBody.length() > 0 && (responseBody.charAt(0) == 0x1F || responseBody.contains("\u001F"))) {
-                logger.error("❌ Response appears to be compressed binary data - decompression failed");
-                Map<String, Object> data = new HashMap<>();
-                data.put("parsing_error", "Response appears to be compressed (GZIP/deflate) but was not properly decompressed by HttpClient");
-                data.put("raw_response", responseBody.substring(0, Math.min(200, responseBody.length())) + "...[truncated]");
-                result.setData(data);
-                return;
-            }
-            
-            JsonNode jsonNode = objectMapper.readTree(responseBody);
-            Map<String, Object> data = objectMapper.convertValue(jsonNode, new TypeReference<Map<String, Object>>() {});
-            result.setData(data);
+            result.setBody(enableConcurrentProcessing 
+                    ? jsonDecoder.decode(responseBody, charset, type, processingPool) 
+                    : jsonDecoder.decode(responseBody, charset, type));
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to bind response from {} to {}, parsing it untyped: {}", 
+                       result.getUrl(), type.getSimpleName(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Standard JSON processing. Bodies are already decompressed by the body handler.
+     */
+    private void processStandardJsonResponse(byte[] responseBody, Charset charset, CrawlResult result) {
+        try {
+            result.setData(jsonDecoder.decodeMap(responseBody, charset));
         } catch (Exception e) {
             logger.warn("Failed to parse JSON response: {}", e.getMessage());
             Map<String, Object> data = new HashMap<>();
             data.put("parsing_error", e.getMessage());
-            data.put("raw_response", responseBody.substring(0, Math.min(500, responseBody.length())) + 
-                                   (responseBody.length() > 500 ? "...[truncated " + (responseBody.length() - 500) + " chars]" : ""));
+            // Only the start of the body is decoded as text
+            String preview = new String(responseBody, 0, Math.min(2000, responseBody.length), charset);
+            data.put("raw_response", preview.substring(0, Math.min(500, preview.length())) + 
+                                   (responseBody.length > 500 ? "...[truncated, " + responseBody.length + " bytes in total]" : ""));
             result.setData(data);
         }
     }
     
     /**
-     * Parallel processing for large JSON responses
+     * Processing for large JSON responses. The elements of a body's dominant array are
+     * bound in parallel on the processing pool, which the concurrent path already runs on.
      */
-    private void processLargeJsonResponse(String responseBody, CrawlResult result) {
+    private void processLargeJsonResponse(byte[] responseBody, Charset charset, CrawlResult result) {
         try {
-            // Submit JSON parsing to processing pool
-            CompletableFuture<Map<String, Object>> parsingFuture = CompletableFuture.supplyAsync(() -> {
-                try {
-                    JsonNode jsonNode = objectMapper.readTree(responseBody);
-                    return objectMapper.convertValue(jsonNode, new TypeReference<Map<String, Object>>() {});
-                } catch (Exception e) {
-                    logger.debug("JSON parsing failed in parallel processor, falling back to raw text");
-                    Map<String, Object> fallback = new HashMap<>();
-                    fallback.put("raw_response", responseBody);
-                    fallback.put("parsing_error", e.getMessage());
-                    return fallback;
-                }
-            }, processingPool);
-            
-            // Get result with timeout
-            Map<String, Object> data = parsingFuture.get(10, TimeUnit.SECONDS);
-            result.setData(data);
-            logger.debug("⚡ Large JSON response processed in parallel");
-            
+            result.setData(jsonDecoder.decodeMap(responseBody, charset, processingPool));
+            logger.debug("⚡ Large JSON response processed on processing pool");
         } catch (Exception e) {
-            logger.warn("Parallel JSON processing failed, falling back to standard processing");
-            processStandardJsonResponse(responseBody, result);
+            logger.warn("Large JSON processing failed, falling back to standard processing");
+            processStandardJsonResponse(responseBody, charset, result);
         }
     }
     
+    private static boolean isBlank(byte[] body) {
+        for (byte b : body) {
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Crawl a single URL asynchronously: rate limiting, sending, retries and parsing
+     * are composed as stages, so no thread waits on the request.
+     */
+    public CompletableFuture<CrawlResult> crawlAsync(String url) {
+        return crawlAsync(url, null);
+    }
+    
+    /**
+     * Crawl a single URL asynchronously with custom headers.
+     * Concurrent calls for the same normalized URL and headers share one fetch and one result.
+     */
+    public CompletableFuture<CrawlResult> crawlAsync(String url, Map<String, String> customHeaders) {
+        return inFlightCrawls.execute(requestKey(url, customHeaders), () -> crawlWithRetry(url, customHeaders, 0));
+    }
+    
     /**
      * Crawl multiple URLs asynchronously
      */
@@ -524,6 +757,13 @@ public class ApiCrawler {
             return CompletableFuture.completedFuture(new HashMap<>());
         }
         
+        // Results are keyed by URL, so each distinct URL is crawled once
+        List<String> distinctUrls = urls.stream().distinct().toList();
+        if (distinctUrls.size() < urls.size()) {
+            logger.info("🔗 Skipping {} duplicate URLs in batch", urls.size() - distinctUrls.size());
+            urls = distinctUrls;
+        }
+        
         logger.info("🚀 Starting batch crawl of {} URLs with enhanced concurrency", urls.size());
         
         // Enhanced batch processing with load balancing
@@ -534,15 +774,91 @@ public class ApiCrawler {
         }
     }
     
+    /**
+     * Crawl URLs as a stream: results are published in completion order, and a URL is
+     * only fetched once the subscriber has requested a result for it
+     */
+    public Flow.Publisher<CrawlResult> crawlStream(Iterable<String> urls) {
+        return crawlStream(urls, null);
+    }
+    
+    /**
+     * Crawl URLs as a stream with custom headers, keeping at most one request per
+     * worker thread in flight
+     */
+    public Flow.Publisher<CrawlResult> crawlStream(Iterable<String> urls, Map<String, String> customHeaders) {
+        return crawlStream(urls, customHeaders, originalThreadPoolSize);
+    }
+    
+    /**
+     * Crawl URLs as a stream with custom headers and the given maximum number of requests in flight
+     */
+    public Flow.Publisher<CrawlResult> crawlStream(Iterable<String> urls, Map<String, String> customHeaders, int maxInFlight) {
+        return new CrawlPublisher(urls, url -> crawlAsync(url, customHeaders), maxInFlight);
+    }
+    
+    /**
+     * Crawl every pending URL in a frontier, keeping at most one request per worker
+     * thread outstanding, and hand each result to the consumer as it completes.
+     * Outcomes are recorded in the frontier, so an interrupted crawl resumes where it stopped.
+     */
+    public CompletableFuture<Void> crawlFrontier(CrawlFrontier frontier, Consumer<CrawlResult> consumer) {
+        return crawlFrontier(frontier, originalThreadPoolSize, consumer);
+    }
+    
+    /**
+     * Crawl every pending URL in a frontier with the given number of concurrent requests
+     */
+    public CompletableFuture<Void> crawlFrontier(CrawlFrontier frontier, int parallelism, Consumer<CrawlResult> consumer) {
+        logger.info("🚀 Starting frontier crawl: {} pending URLs, {} concurrent requests", 
+                   frontier.getPendingCount(), parallelism);
+        
+        CompletableFuture<?>[] workers = IntStream.range(0, Math.max(1, parallelism))
+                .mapToObj(i -> crawlNextFromFrontier(frontier, consumer))
+                .toArray(CompletableFuture[]::new);
+        
+        return CompletableFuture.allOf(workers).thenRun(() -> 
+            logger.info("🎯 Frontier crawl completed: {} done, {} failed, {} pending", 
+                       frontier.getDoneCount(), frontier.getFailedCount(), frontier.getPendingCount()));
+    }
+    
+    /**
+     * One frontier worker: take the next URL, crawl it, and continue until the frontier is drained
+     */
+    private CompletableFuture<Void> crawlNextFromFrontier(CrawlFrontier frontier, Consumer<CrawlResult> consumer) {
+        CrawlFrontier.Entry entry = frontier.poll();
+        if (entry == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return crawlAsync(entry.url())
+                .handle((result, error) -> {
+                    if (error != null) {
+                        result = new CrawlResult(entry.url());
+                        result.setErrorMessage("Async execution error: " + unwrap(error).getMessage());
+                    }
+                    boolean handled = true;
+                    try {
+                        consumer.accept(result);
+                    } catch (RuntimeException e) {
+                        logger.error("❌ Error handling result for URL: {}", entry.url(), e);
+                        handled = false;
+                    }
+                    frontier.complete(entry, handled && result.isSuccessful());
+                    return null;
+                })
+                // Continue on the worker pool so long runs do not grow the stack
+                .thenComposeAsync(v -> crawlNextFromFrontier(frontier, consumer), executorService);
+    }
+    
     /**
      * Standard batch crawling
      */
     private CompletableFuture<Map<String, CrawlResult>> crawlBatchStandard(List<String> urls, Map<String, String> customHeaders) {
-        Map<String, CompletableFuture<CrawlResult>> futures = new HashMap<>();
+        Map<String, CompletableFuture<CrawlResult>> futures = new LinkedHashMap<>();
         
         for (String url : urls) {
-            CompletableFuture<CrawlResult> future = CompletableFuture.supplyAsync(() -> crawl(url, customHeaders), executorService);
-            futures.put(url, future);
+            futures.computeIfAbsent(url, u -> crawlAsync(u, customHeaders));
         }
         
         return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
@@ -563,103 +879,85 @@ public class ApiCrawler {
     }
     
     /**
-     * Enhanced batch crawling with intelligent load balancing and HTTP/2 connection reuse
+     * Enhanced batch crawling: URLs are queued per host and a set of workers takes them
+     * round-robin across hosts, skipping hosts that are at their concurrency limit. A
+     * single-host batch is spread over all workers, up to the host's limit.
      */
     private CompletableFuture<Map<String, CrawlResult>> crawlBatchEnhanced(List<String> urls, Map<String, String> customHeaders) {
         // Group URLs by host for optimal connection reuse
         Map<String, List<String>> urlsByHost = groupUrlsByHost(urls);
-        Map<String, CompletableFuture<Map<String, CrawlResult>>> hostFutures = new HashMap<>();
+        HostWorkQueue queue = new HostWorkQueue(urlsByHost);
+        Map<String, CrawlResult> allResults = new ConcurrentHashMap<>();
         
-        logger.info("⚡ Enhanced batch crawling: {} hosts, {} total URLs", urlsByHost.size(), urls.size());
+        // Enough workers to fill every host's limit, and at least one per pool thread
+        int hostLimit = concurrencyLimiter.getMaxLimit();
+        int workers = hostLimit > 0 
+                ? Math.max(originalThreadPoolSize, urlsByHost.size() * hostLimit) 
+                : Math.max(originalThreadPoolSize, urls.size());
+        workers = Math.min(workers, urls.size());
         
-        // Process each host's URLs concurrently but with connection reuse
-        for (Map.Entry<String, List<String>> entry : urlsByHost.entrySet()) {
-            String host = entry.getKey();
-            List<String> hostUrls = entry.getValue();
-            
-            CompletableFuture<Map<String, CrawlResult>> hostFuture = CompletableFuture.supplyAsync(() -> {
-                return crawlHostUrlsConcurrently(host, hostUrls, customHeaders);
-            }, executorService);
-            
-            hostFutures.put(host, hostFuture);
-        }
+        logger.info("⚡ Enhanced batch crawling: {} hosts, {} total URLs, {} workers (HTTP/2: {})", 
+                   urlsByHost.size(), urls.size(), workers, enableHttp2);
         
-        // Combine all host results
-        return CompletableFuture.allOf(hostFutures.values().toArray(new CompletableFuture[0]))
-                .thenApply(v -> {
-                    Map<String, CrawlResult> allResults = new HashMap<>();
-                    hostFutures.forEach((host, future) -> {
-                        try {
-                            Map<String, CrawlResult> hostResults = future.get();
-                            allResults.putAll(hostResults);
-                            logger.debug("✅ Completed crawling {} URLs for host: {}", hostResults.size(), host);
-                        } catch (Exception e) {
-                            logger.error("❌ Error crawling host {}: {}", host, e.getMessage());
-                        }
-                    });
+        CompletableFuture<?>[] running = IntStream.range(0, workers)
+                .mapToObj(i -> crawlNextFromQueue(queue, customHeaders, allResults))
+                .toArray(CompletableFuture[]::new);
+        
+        return CompletableFuture.allOf(running)
+                .handle((v, error) -> {
+                    if (error != null) {
+                        logger.error("❌ Error in batch crawl worker: {}", unwrap(error).getMessage());
+                    }
                     logger.info("🎯 Enhanced batch crawl completed: {}/{} URLs successful", 
                               allResults.values().stream().mapToInt(r -> r.isSuccessful() ? 1 : 0).sum(),
                               allResults.size());
-                    return allResults;
+                    if (concurrencyLimiter.isAdaptive()) {
+                        logger.info("📈 Adaptive per-host concurrency limits: {}", concurrencyLimiter.getLimitByHost());
+                    }
+                    Map<String, CrawlResult> results = new HashMap<>(allResults);
+                    return results;
                 });
     }
     
     /**
-     * Group URLs by hostname for optimal connection reuse
+     * One batch worker: take the next URL round-robin across hosts, crawl it, and continue until the queue is empty
      */
-    private Map<String, List<String>> groupUrlsByHost(List<String> urls) {
-        Map<String, List<String>> grouped = new HashMap<>();
-        
-        for (String url : urls) {
-            try {
-                String host = URI.create(url).getHost();
-                grouped.computeIfAbsent(host, k -> new ArrayList<>()).add(url);
-            } catch (Exception e) {
-                logger.warn("⚠️ Invalid URL format, using fallback grouping: {}", url);
-                grouped.computeIfAbsent("unknown", k -> new ArrayList<>()).add(url);
-            }
+    private CompletableFuture<Void> crawlNextFromQueue(HostWorkQueue queue, Map<String, String> customHeaders, 
+                                                       Map<String, CrawlResult> results) {
+        String url = queue.next(concurrencyLimiter::hasCapacity);
+        if (url == null) {
+            return CompletableFuture.completedFuture(null);
         }
         
-        return grouped;
+        return crawlAsync(url, customHeaders)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        logger.error("Error crawling URL: {}", url, error);
+                        result = new CrawlResult(url);
+                        result.setErrorMessage("Async execution error: " + unwrap(error).getMessage());
+                    }
+                    results.put(url, result);
+                    return null;
+                })
+                // Continue on the worker pool so long runs do not grow the stack
+                .thenComposeAsync(v -> crawlNextFromQueue(queue, customHeaders, results), executorService);
     }
     
     /**
-     * Crawl multiple URLs from the same host with optimal connection reuse
+     * Group URLs by hostname for optimal connection reuse
      */
-    private Map<String, CrawlResult> crawlHostUrlsConcurrently(String host, List<String> urls, Map<String, String> customHeaders) {
-        Map<String, CrawlResult> results = new HashMap<>();
+    private Map<String, List<String>> groupUrlsByHost(List<String> urls) {
+        Map<String, List<String>> grouped = new LinkedHashMap<>();
         
-        if (enableHttp2 && urls.size() > 1) {
-            // Use HTTP/2 multiplexing for same-host URLs
-            logger.debug("🔄 Using HTTP/2 multiplexing for {} URLs on host: {}", urls.size(), host);
-            
-            List<CompletableFuture<CrawlResult>> urlFutures = urls.stream()
-                .map(url -> CompletableFuture.supplyAsync(() -> crawl(url, customHeaders), processingPool))
-                .toList();
-            
-            // Wait for all to complete
-            CompletableFuture.allOf(urlFutures.toArray(new CompletableFuture[0])).join();
-            
-            // Collect results
-            for (int i = 0; i < urls.size(); i++) {
-                try {
-                    CrawlResult result = urlFutures.get(i).get();
-                    results.put(urls.get(i), result);
-                } catch (Exception e) {
-                    logger.error("Error in multiplexed crawl for URL: {}", urls.get(i), e);
-                    CrawlResult errorResult = new CrawlResult(urls.get(i));
-                    errorResult.setErrorMessage("Multiplexed crawl error: " + e.getMessage());
-                    results.put(urls.get(i), errorResult);
-                }
-            }
-        } else {
-            // Standard sequential processing for HTTP/1.1 or single URL
-            for (String url : urls) {
-                results.put(url, crawl(url, customHeaders));
+        for (String url : urls) {
+            String host = hostOf(url);
+            if (host.equals("unknown")) {
+                logger.warn("⚠️ Invalid URL format, using fallback grouping: {}", url);
             }
+            grouped.computeIfAbsent(host, k -> new ArrayList<>()).add(url);
         }
         
-        return results;
+        return grouped;
     }
     
     /**
@@ -673,31 +971,27 @@ public class ApiCrawler {
      * Make a POST request to an API with custom headers
      */
     public CrawlResult postData(String url, String jsonBody, Map<String, String> customHeaders) {
-        return postDataWithRetry(url, jsonBody, customHeaders);
+        return postDataWithRetry(url, jsonBody, customHeaders, 0).join();
     }
     
     /**
-     * POST with automatic retry and exponential backoff
+     * POST with automatic retry and exponential backoff, scheduled without holding a thread
      */
-    private CrawlResult postDataWithRetry(String url, String jsonBody, Map<String, String> customHeaders) {
-        CrawlResult lastResult = null;
-        
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
-            lastResult = attemptPost(url, jsonBody, customHeaders, attempt);
-            
+    private CompletableFuture<CrawlResult> postDataWithRetry(String url, String jsonBody, Map<String, String> customHeaders, int attempt) {
+        return attemptPost(url, jsonBody, customHeaders, attempt).thenCompose(lastResult -> {
             // If successful, return immediately
             if (lastResult.isSuccessful()) {
                 if (attempt > 0) {
                     logger.info("✅ Successfully posted to URL: {} after {} retries", url, attempt);
                 }
-                return lastResult;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
             // If this was the last attempt, don't retry
             if (attempt == maxRetries) {
                 logger.error("❌ Failed to post to URL: {} after {} attempts. Final error: {}", 
                            url, maxRetries + 1, lastResult.getErrorMessage());
-                break;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
             // Determine if we should retry
@@ -719,103 +1013,122 @@ public class ApiCrawler {
             if (!shouldRetryThis) {
                 logger.warn("❌ Non-retryable error for POST to URL: {} - Status: {}, Error: {}", 
                           url, lastResult.getStatusCode(), lastResult.getErrorMessage());
-                break;
+                return CompletableFuture.completedFuture(lastResult);
             }
             
-            // Wait before retry (with exponential backoff)
-            waitForRetry(attempt);
-        }
-        
-        return lastResult;
+            // Honor the server's back-off hint unless it is too long to be worth waiting for
+            long serverDelayMs = serverRetryDelayMs(lastResult);
+            if (serverDelayMs > MAX_SERVER_RETRY_DELAY_MS) {
+                logger.warn("❌ Server asked to wait {}ms before retrying POST to URL: {}, giving up", serverDelayMs, url);
+                return CompletableFuture.completedFuture(lastResult);
+            }
+            
+            // Retry after backoff; if the timer cannot be scheduled keep the last result
+            CompletableFuture<CrawlResult> retry = scheduleRetry(attempt, serverDelayMs)
+                    .thenCompose(v -> postDataWithRetry(url, jsonBody, customHeaders, attempt + 1));
+            return retry.exceptionally(e -> lastResult);
+        });
     }
     
     /**
-     * Single POST attempt without retry logic
+     * Single POST attempt without retry logic, admitted through the per-host limits
      */
-    private CrawlResult attemptPost(String url, String jsonBody, Map<String, String> customHeaders, int attemptNumber) {
-        CrawlResult result = new CrawlResult(url);
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            // Simple rate limiting (only on first attempt to avoid double delay)
-            if (attemptNumber == 0 && requestCount.get() > 0) {
-                enforceRateLimit();
-            }
-            
-            if (attemptNumber == 0) {
+    private CompletableFuture<CrawlResult> attemptPost(String url, String jsonBody, Map<String, String> customHeaders, int attemptNumber) {
+        if (attemptNumber == 0) {
             requestCount.incrementAndGet();
-            }
-
+        }
+        
+        return admit(url, () -> {
             if (attemptNumber == 0) {
                 logger.info("📤 Posting to URL: {}", url);
             } else {
                 logger.info("🔁 POST retry attempt #{} for URL: {}", attemptNumber + 1, url);
             }
-            
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
-            
-            // Add default headers
-            for (Map.Entry<String, String> header : defaultHeaders.entrySet()) {
+            return sendPost(url, jsonBody, customHeaders);
+        }).exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            logger.warn("🔧 Error in POST attempt for URL: {} - {}", url, cause.getMessage());
+            CrawlResult result = new CrawlResult(url);
+            result.setErrorMessage(cause.getMessage());
+            return result;
+        });
+    }
+    
+    /**
+     * Send a POST request and parse its response
+     */
+    private CompletableFuture<CrawlResult> sendPost(String url, String jsonBody, Map<String, String> customHeaders) {
+        CrawlResult result = new CrawlResult(url);
+        long startTime = System.currentTimeMillis();
+        
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
+        
+        // Add default headers
+        for (Map.Entry<String, String> header : defaultHeaders.entrySet()) {
+            requestBuilder.header(header.getKey(), header.getValue());
+        }
+        
+        // Add custom headers
+        if (customHeaders != null) {
+            for (Map.Entry<String, String> header : customHeaders.entrySet()) {
                 requestBuilder.header(header.getKey(), header.getValue());
             }
-            
-            // Add custom headers
-            if (customHeaders != null) {
-                for (Map.Entry<String, String> header : customHeaders.entrySet()) {
-                    requestBuilder.header(header.getKey(), header.getValue());
-                }
-            }
-            
-            HttpRequest request = requestBuilder.build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            result.setStatusCode(response.statusCode());
-            
-            // Extract response headers
-            Map<String, String> responseHeaders = new HashMap<>();
-            response.headers().map().forEach((key, values) -> {
-                responseHeaders.put(key, String.join(", ", values));
-            });
-            result.setHeaders(responseHeaders);
-            
-            String responseBody = response.body();
-            
-            // Parse JSON response
-            if (responseBody != null && !responseBody.trim().isEmpty()) {
-                try {
-                    JsonNode jsonNode = objectMapper.readTree(responseBody);
-                    Map<String, Object> data = objectMapper.convertValue(jsonNode, new TypeReference<Map<String, Object>>() {});
-                    result.setData(data);
-                } catch (Exception e) {
-                    logger.warn("Failed to parse JSON response for URL: {}, treating as plain text", url);
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("raw_response", responseBody);
-                    result.setData(data);
-                }
-            }
-            
-            // Check if status code indicates success
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                logger.debug("✅ Successfully posted to URL: {} with status code: {}", url, result.getStatusCode());
-            } else {
-                logger.warn("⚠️ Non-success status code {} for POST to URL: {}", response.statusCode(), url);
-            }
-            
-        } catch (IOException | InterruptedException e) {
-            logger.warn("🔧 Network error posting to URL: {} - {}", url, e.getMessage());
-            result.setErrorMessage(e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
+        }
+        
+        HttpRequest request = requestBuilder.build();
+        
+        return httpClient.sendAsync(request, bodyHandler)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        logger.warn("🔧 Network error posting to URL: {} - {}", url, cause.getMessage());
+                        result.setErrorMessage(cause.getMessage());
+                    } else {
+                        processPostResponse(url, response, result);
+                    }
+                    result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
+                    return result;
+                });
+    }
+    
+    /**
+     * Parse a POST response, treating non-JSON bodies as plain text
+     */
+    private void processPostResponse(String url, HttpResponse<byte[]> response, CrawlResult result) {
+        result.setStatusCode(response.statusCode());
+        
+        // Extract response headers
+        Map<String, String> responseHeaders = new HashMap<>();
+        response.headers().map().forEach((key, values) -> {
+            responseHeaders.put(key, String.join(", ", values));
+        });
+        result.setHeaders(responseHeaders);
+        
+        byte[] responseBody = response.body();
+        Charset charset = DecodingBodyHandler.charsetOf(response.headers());
+        
+        // Parse JSON response
+        if (responseBody != null && !isBlank(responseBody)) {
+            try {
+                result.setData(jsonDecoder.decodeMap(responseBody, charset));
+            } catch (Exception e) {
+                logger.warn("Failed to parse JSON response for URL: {}, treating as plain text", url);
+                Map<String, Object> data = new HashMap<>();
+                data.put("raw_response", new String(responseBody, charset));
+                result.setData(data);
             }
-        } finally {
-            result.setCrawlDurationMs(System.currentTimeMillis() - startTime);
         }
         
-        return result;
+        // Check if status code indicates success
+        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+            logger.debug("✅ Successfully posted to URL: {} with status code: {}", url, result.getStatusCode());
+        } else {
+            logger.warn("⚠️ Non-success status code {} for POST to URL: {}", response.statusCode(), url);
+        }
     }
     
     public void setUserAgent(String userAgent) {
@@ -827,6 +1140,73 @@ public class ApiCrawler {
         this.defaultHeaders.put(name, value);
     }
     
+    /**
+     * Configure the per-host token bucket (requests per second and burst size)
+     */
+    public void setHostRateLimit(double permitsPerSecond, int burst) {
+        rateLimiter.configure(permitsPerSecond, burst);
+        logger.info("⏱️ Per-host rate limit set to {}/s (burst {})", permitsPerSecond, rateLimiter.getBurst());
+    }
+    
+    /**
+     * Let each host's in-flight limit adapt (AIMD) between one and the given ceiling,
+     * starting from maxConnectionsPerHost
+     */
+    public void setAdaptiveConcurrency(int ceiling) {
+        concurrencyLimiter.enableAdaptive(ceiling);
+        logger.info("📈 Adaptive per-host concurrency enabled (start {}, ceiling {})", 
+                   maxConnectionsPerHost, Math.max(ceiling, maxConnectionsPerHost));
+    }
+    
+    /**
+     * Configure the per-host circuit breaker (0 failures disables it)
+     */
+    public void setCircuitBreaker(int failureThreshold, long openDurationMs) {
+        circuitBreaker.configure(failureThreshold, openDurationMs);
+        logger.info("🔌 Circuit breaker: open after {} consecutive failures, probe every {}ms", 
+                   failureThreshold, openDurationMs);
+    }
+    
+    /**
+     * Hedge GET requests that have not answered after the given latency percentile,
+     * sending at most budgetFraction extra requests (percentile 0 disables hedging)
+     */
+    public void setHedging(double percentile, double budgetFraction) {
+        hedger.configure(percentile, budgetFraction);
+        if (hedger.isEnabled()) {
+            logger.info("🏁 Hedged GETs enabled at p{} latency (budget {}% of requests)", 
+                       percentile, budgetFraction * 100);
+        }
+    }
+    
+    /**
+     * Leave the properties at these dotted paths out of parsed responses, e.g.
+     * {@code response.results.fields.body}; arrays along a path are transparent
+     */
+    public void setDroppedPaths(Collection<String> paths) {
+        jsonDecoder.setDroppedPaths(paths);
+        if (jsonDecoder.isDroppingPaths()) {
+            logger.info("✂️ Dropping response paths while parsing: {}", paths);
+        }
+    }
+    
+    /**
+     * Bind successful GET responses from this host directly to the given type instead of
+     * an untyped map; the typed body is available from {@link CrawlResult#getBody(Class)}
+     */
+    public void registerResponseType(String host, Class<?> type) {
+        responseTypes.put(host.toLowerCase(), type);
+        logger.info("🧩 Binding responses from {} to {}", host, type.getSimpleName());
+    }
+    
+    public double getHostRatePerSecond() {
+        return rateLimiter.getPermitsPerSecond();
+    }
+    
+    public int getHostBurst() {
+        return rateLimiter.getBurst();
+    }
+    
     public long getRequestCount() {
         return requestCount.get();
     }
@@ -843,6 +1223,10 @@ public class ApiCrawler {
         return backoffMultiplier;
     }
     
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+    
     public Set<Integer> getRetryableStatusCodes() {
         return new HashSet<>(retryableStatusCodes);
     }
@@ -864,6 +1248,13 @@ public class ApiCrawler {
                 logger.warn("⚠️ Processing pool forced shutdown");
             }
             
+            // Shutdown scheduler used for delayed permits
+            schedulerService.shutdown();
+            if (!schedulerService.awaitTermination(5, TimeUnit.SECONDS)) {
+                schedulerService.shutdownNow();
+                logger.warn("⚠️ Scheduler service forced shutdown");
+            }
+            
             // Shutdown monitoring service
             monitoringService.shutdown();
             if (!monitoringService.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -890,6 +1281,7 @@ public class ApiCrawler {
         } catch (InterruptedException e) {
             logger.warn("🚨 Shutdown interrupted, forcing immediate termination");
             processingPool.shutdownNow();
+            schedulerService.shutdownNow();
             monitoringService.shutdownNow();
             executorService.shutdownNow();
             Thread.currentThread().interrupt();
@@ -974,6 +1366,18 @@ public class ApiCrawler {
         }
     }
     
+    /**
+     * Scheduler thread factory for delayed continuations (rate limit permits, retry backoff)
+     */
+    private class SchedulerThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "crawler-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
     /**
      * Start monitoring thread pool health
      */
@@ -993,11 +1397,19 @@ public class ApiCrawler {
     private void checkThreadPoolHealth() {
         lastHealthCheck.set(System.currentTimeMillis());
         
-        int activeThreads = executorService.getActiveCount();
-        int poolSize = executorService.getPoolSize();
-        int corePoolSize = executorService.getCorePoolSize();
-        long completedTasks = executorService.getCompletedTaskCount();
-        int queueSize = executorService.getQueue().size();
+        if (executorService instanceof VirtualThreadExecutor virtualExecutor) {
+            // Virtual threads are created per task, so there is no pool to repair
+            logger.debug("🔍 Virtual Thread Health Check: active tasks {}, completed tasks {}", 
+                        virtualExecutor.getActiveCount(), virtualExecutor.getCompletedTaskCount());
+            return;
+        }
+        
+        ThreadPoolExecutor platformPool = (ThreadPoolExecutor) executorService;
+        int activeThreads = platformPool.getActiveCount();
+        int poolSize = platformPool.getPoolSize();
+        int corePoolSize = platformPool.getCorePoolSize();
+        long completedTasks = platformPool.getCompletedTaskCount();
+        int queueSize = platformPool.getQueue().size();
         
         logger.debug("🔍 Thread Pool Health Check:");
         logger.debug("   Active threads: {}/{}", activeThreads, poolSize);
@@ -1006,6 +1418,11 @@ public class ApiCrawler {
         logger.debug("   Queue size: {}", queueSize);
         logger.debug("   Threads created: {}", threadsCreated.get());
         logger.debug("   Threads replaced: {}", threadsReplaced.get());
+        logger.debug("   Host requests in flight: {}, queued: {}", 
+                    concurrencyLimiter.getTotalInFlight(), concurrencyLimiter.getTotalQueued());
+        if (circuitBreaker.getOpenCount() > 0) {
+            logger.warn("🚫 Circuit breakers not closed: {}", circuitBreaker.getStateByHost());
+        }
         
         // Check if thread pool is unhealthy
         if (poolSize < corePoolSize) {
@@ -1013,7 +1430,7 @@ public class ApiCrawler {
                        poolSize, corePoolSize);
             
             // Force thread pool to restore to core size
-            executorService.prestartAllCoreThreads();
+            platformPool.prestartAllCoreThreads();
             logger.info("🔄 Attempted to restart core threads");
         }
         
@@ -1034,15 +1451,45 @@ public class ApiCrawler {
      */
     public Map<String, Object> getThreadPoolStats() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("activeThreads", executorService.getActiveCount());
-        stats.put("poolSize", executorService.getPoolSize());
-        stats.put("corePoolSize", executorService.getCorePoolSize());
-        stats.put("completedTasks", executorService.getCompletedTaskCount());
-        stats.put("queueSize", executorService.getQueue().size());
-        stats.put("threadsCreated", threadsCreated.get());
+        stats.put("executionMode", executionMode.name().toLowerCase());
+        if (executorService instanceof VirtualThreadExecutor virtualExecutor) {
+            // Each running task owns exactly one virtual thread and nothing ever queues
+            stats.put("activeThreads", virtualExecutor.getActiveCount());
+            stats.put("poolSize", virtualExecutor.getActiveCount());
+            stats.put("corePoolSize", 0);
+            stats.put("completedTasks", virtualExecutor.getCompletedTaskCount());
+            stats.put("queueSize", 0);
+            stats.put("threadsCreated", virtualExecutor.getStartedTaskCount());
+            stats.put("isHealthy", !virtualExecutor.isShutdown());
+        } else {
+            ThreadPoolExecutor platformPool = (ThreadPoolExecutor) executorService;
+            stats.put("activeThreads", platformPool.getActiveCount());
+            stats.put("poolSize", platformPool.getPoolSize());
+            stats.put("corePoolSize", platformPool.getCorePoolSize());
+            stats.put("completedTasks", platformPool.getCompletedTaskCount());
+            stats.put("queueSize", platformPool.getQueue().size());
+            stats.put("threadsCreated", threadsCreated.get());
+            stats.put("isHealthy", platformPool.getPoolSize() >= platformPool.getCorePoolSize());
+        }
         stats.put("threadsReplaced", threadsReplaced.get());
+        stats.put("rateLimitedHosts", rateLimiter.getTrackedHostCount());
+        stats.put("maxConnectionsPerHost", maxConnectionsPerHost);
+        stats.put("hostRequestsInFlight", concurrencyLimiter.getTotalInFlight());
+        stats.put("hostRequestsQueued", concurrencyLimiter.getTotalQueued());
+        stats.put("inFlightByHost", concurrencyLimiter.getInFlightByHost());
+        stats.put("queuedByHost", concurrencyLimiter.getQueuedByHost());
+        stats.put("adaptiveConcurrency", concurrencyLimiter.isAdaptive());
+        stats.put("concurrencyLimitByHost", concurrencyLimiter.getLimitByHost());
+        stats.put("openCircuitBreakers", circuitBreaker.getOpenCount());
+        stats.put("circuitBreakerByHost", circuitBreaker.getStateByHost());
+        stats.put("coalescedRequests", inFlightCrawls.getCoalescedCount());
+        stats.put("wireBytes", bodyHandler.getWireBytes());
+        stats.put("decodedBytes", bodyHandler.getDecodedBytes());
+        stats.put("hedgingEnabled", hedger.isEnabled());
+        stats.put("hedgeDelayMs", hedger.getHedgeDelayMs());
+        stats.put("hedgesSent", hedger.getHedgesSent());
+        stats.put("hedgeWins", hedger.getHedgeWins());
         stats.put("lastHealthCheck", new java.util.Date(lastHealthCheck.get()));
-        stats.put("isHealthy", executorService.getPoolSize() >= executorService.getCorePoolSize());
         return stats;
     }
 } 
\ No newline at end of file
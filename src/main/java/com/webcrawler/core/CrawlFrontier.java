@@ -0,0 +1,274 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Persistent crawl frontier backed by two append-only files in a directory.
+ *
+ * {@code queue.log} holds one URL per line in the order added; a URL's line number is
+ * its sequence number. {@code state.log} records finished URLs as {@code D <seq>} (done)
+ * or {@code F <seq>} (failed). Only a bounded window of pending URLs is kept in memory
+ * and refilled from disk as it drains. URLs that were in flight when the process died
+ * have no state record, so they are pending again when the frontier is reopened.
+ */
+public class CrawlFrontier implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlFrontier.class);
+
+    private static final String QUEUE_FILE = "queue.log";
+    private static final String STATE_FILE = "state.log";
+
+    /**
+     * State of a URL in the frontier
+     */
+    public enum UrlState {
+        PENDING, IN_FLIGHT, DONE, FAILED
+    }
+
+    /**
+     * A URL handed out by the frontier, to be passed back to {@link #complete(Entry, boolean)}
+     */
+    public record Entry(long sequence, String url) {
+    }
+
+    private final Path queuePath;
+    private final Path statePath;
+    private final int windowSize;
+    private final BufferedWriter queueWriter;
+    private final BufferedWriter stateWriter;
+    private final Deque<Entry> window = new ArrayDeque<>();
+    private final Map<Long, Entry> inFlight = new HashMap<>();
+    private final BitSet done = new BitSet();
+    private final BitSet failed = new BitSet();
+    private long size;          // URLs in queue.log
+    private long readSequence;  // Sequence number of the next line to read into the window
+    private long readOffset;    // Byte offset of that line
+
+    /**
+     * Open (or create) the frontier stored in the given directory
+     *
+     * @param windowSize maximum number of pending URLs held in memory
+     */
+    public CrawlFrontier(Path directory, int windowSize) throws IOException {
+        Files.createDirectories(directory);
+        this.queuePath = directory.resolve(QUEUE_FILE);
+        this.statePath = directory.resolve(STATE_FILE);
+        this.windowSize = Math.max(1, windowSize);
+
+        replayState();
+        recoverQueue();
+        this.queueWriter = Files.newBufferedWriter(queuePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.stateWriter = Files.newBufferedWriter(statePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        if (size > 0) {
+            logger.info("📂 Reopened crawl frontier {}: {} URLs, {} done, {} failed, {} pending",
+                       directory, size, done.cardinality(), failed.cardinality(), getPendingCount());
+        }
+    }
+
+    /**
+     * Append URLs to the frontier. URLs are not de-duplicated, so seed a frontier only
+     * when it is new (see {@link #size()}).
+     */
+    public synchronized void addAll(Collection<String> urls) {
+        try {
+            for (String url : urls) {
+                if (url.indexOf('\n') >= 0 || url.indexOf('\r') >= 0) {
+                    throw new IllegalArgumentException("URL contains a line break: " + url);
+                }
+                queueWriter.write(url);
+                queueWriter.newLine();
+            }
+            queueWriter.flush();
+            size += urls.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to crawl frontier", e);
+        }
+    }
+
+    /**
+     * Take the next pending URL and mark it in flight, or return null when nothing is pending
+     */
+    public synchronized Entry poll() {
+        if (window.isEmpty()) {
+            refillWindow();
+        }
+        Entry entry = window.poll();
+        if (entry != null) {
+            inFlight.put(entry.sequence(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Record the outcome of a URL handed out by {@link #poll()}
+     */
+    public synchronized void complete(Entry entry, boolean success) {
+        if (inFlight.remove(entry.sequence()) == null) {
+            return;
+        }
+        try {
+            stateWriter.write((success ? "D " : "F ") + entry.sequence());
+            stateWriter.newLine();
+            stateWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record crawl frontier state", e);
+        }
+        (success ? done : failed).set((int) entry.sequence());
+    }
+
+    public synchronized UrlState getState(long sequence) {
+        int index = (int) sequence;
+        if (done.get(index)) {
+            return UrlState.DONE;
+        }
+        if (failed.get(index)) {
+            return UrlState.FAILED;
+        }
+        return inFlight.containsKey(sequence) ? UrlState.IN_FLIGHT : UrlState.PENDING;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized long getPendingCount() {
+        return size - done.cardinality() - failed.cardinality() - inFlight.size();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public synchronized long getDoneCount() {
+        return done.cardinality();
+    }
+
+    public synchronized long getFailedCount() {
+        return failed.cardinality();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            queueWriter.close();
+        } finally {
+            stateWriter.close();
+        }
+    }
+
+    /**
+     * Read pending URLs from queue.log, starting where the last refill stopped,
+     * until the window is full or the end of the file is reached
+     */
+    private void refillWindow() {
+        if (readSequence >= size) {
+            return;
+        }
+        try {
+            readOffset = scanLines(queuePath, readOffset, line -> {
+                long sequence = readSequence++;
+                if (!done.get((int) sequence) && !failed.get((int) sequence)) {
+                    window.add(new Entry(sequence, line));
+                }
+                return window.size() < windowSize && readSequence < size;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read crawl frontier", e);
+        }
+    }
+
+    private void replayState() throws IOException {
+        if (!Files.exists(statePath)) {
+            return;
+        }
+        long validLength = scanLines(statePath, 0, line -> {
+            int sequence = Integer.parseInt(line.substring(2).strip());
+            if (line.charAt(0) == 'D') {
+                done.set(sequence);
+                failed.clear(sequence);
+            } else {
+                failed.set(sequence);
+            }
+            return true;
+        });
+        truncate(statePath, validLength);
+    }
+
+    private void recoverQueue() throws IOException {
+        if (!Files.exists(queuePath)) {
+            return;
+        }
+        long validLength = scanLines(queuePath, 0, line -> {
+            size++;
+            return true;
+        });
+        truncate(queuePath, validLength);
+    }
+
+    /**
+     * Drop a partial last line left by a crash mid-write
+     */
+    private static void truncate(Path path, long validLength) throws IOException {
+        if (Files.size(path) > validLength) {
+            logger.warn("⚠️ Discarding incomplete last line of {}", path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    /**
+     * Feed complete (newline-terminated) lines from the given byte offset to the visitor
+     * until it returns false. Returns the offset just after the last line visited.
+     */
+    private static long scanLines(Path path, long fromOffset, Predicate<String> visitor) throws IOException {
+        long offset = fromOffset;
+        try (InputStream in = Files.newInputStream(path)) {
+            in.skipNBytes(fromOffset);
+            byte[] buffer = new byte[64 * 1024];
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    line.write(buffer, lineStart, i - lineStart);
+                    offset += line.size() + 1;
+                    lineStart = i + 1;
+                    String text = line.toString(StandardCharsets.UTF_8).strip();
+                    line.reset();
+                    if (!visitor.test(text)) {
+                        return offset;
+                    }
+                }
+                line.write(buffer, lineStart, read - lineStart);
+            }
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,175 @@
+package com.webcrawler.core;
+
+import com.webcrawler.model.CrawlResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publishes crawl results as they complete, in completion order.
+ *
+ * A URL is only crawled once the subscriber has requested a result for it, and at most
+ * {@code maxInFlight} crawls run at a time, so memory is bounded by the subscriber's
+ * demand rather than the number of URLs. The publisher is cold and accepts one subscriber.
+ */
+final class CrawlPublisher implements Flow.Publisher<CrawlResult> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrawlPublisher.class);
+
+    private final Iterable<String> urls;
+    private final Function<String, CompletableFuture<CrawlResult>> crawl;
+    private final int maxInFlight;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    CrawlPublisher(Iterable<String> urls, Function<String, CompletableFuture<CrawlResult>> crawl, int maxInFlight) {
+        this.urls = urls;
+        this.crawl = crawl;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CrawlResult> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A crawl stream can only be subscribed once"));
+            return;
+        }
+        CrawlSubscription subscription = new CrawlSubscription(subscriber, urls.iterator());
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Subscription state. All signals to the subscriber and all use of the URL iterator
+     * happen inside {@link #drain()}, which only one thread runs at a time.
+     */
+    private final class CrawlSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super CrawlResult> subscriber;
+        private final Iterator<String> source;
+        private final Queue<CrawlResult> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private int outstanding; // Started but not yet delivered
+        private boolean terminated;
+
+        CrawlSubscription(Flow.Subscriber<? super CrawlResult> subscriber, Iterator<String> source) {
+            this.subscriber = subscriber;
+            this.source = source;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " results, must be positive");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    drainOnce();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (cancelled) {
+                terminated = true;
+                ready.clear();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate(invalidRequest);
+                return;
+            }
+
+            // Deliver what has arrived
+            CrawlResult result;
+            while (demand.get() > 0 && !cancelled && (result = ready.poll()) != null) {
+                demand.decrementAndGet();
+                outstanding--;
+                try {
+                    subscriber.onNext(result);
+                } catch (RuntimeException e) {
+                    logger.error("❌ Crawl stream subscriber failed, cancelling stream", e);
+                    cancelled = true;
+                    terminated = true;
+                    return;
+                }
+            }
+
+            // Start crawls for unfilled demand, up to the in-flight limit
+            try {
+                while (!cancelled && outstanding < Math.min(demand.get(), maxInFlight) && source.hasNext()) {
+                    String url = source.next();
+                    outstanding++;
+                    start(url);
+                }
+            } catch (RuntimeException e) {
+                terminate(e);
+                return;
+            }
+
+            if (outstanding == 0 && !source.hasNext() && !cancelled) {
+                terminated = true;
+                subscriber.onComplete();
+            }
+        }
+
+        private void start(String url) {
+            CompletableFuture<CrawlResult> future;
+            try {
+                future = crawl.apply(url);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((result, error) -> {
+                if (error != null || result == null) {
+                    result = new CrawlResult(url);
+                    result.setErrorMessage("Async execution error: " + (error != null ? error.getMessage() : "no result"));
+                }
+                ready.add(result);
+                drain();
+            });
+        }
+
+        private void terminate(Throwable error) {
+            terminated = true;
+            cancelled = true;
+            ready.clear();
+            subscriber.onError(error);
+        }
+    }
+}
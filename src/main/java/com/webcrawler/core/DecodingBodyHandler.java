@@ -0,0 +1,349 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Body handler that decodes gzip and deflate responses as the chunks arrive.
+ *
+ * {@code java.net.http.HttpClient} does not decompress bodies, so requests advertise
+ * {@link #ACCEPT_ENCODING} and this handler inflates whatever comes back. The format is
+ * taken from the first bytes of the body rather than trusted from Content-Encoding: a
+ * gzip magic number is inflated even when the header is missing, and a body declared as
+ * compressed that is not is passed through. Bodies in other encodings are passed through
+ * unchanged. The body buffer is sized from Content-Length, so an uncompressed body is
+ * handed on without being copied.
+ */
+final class DecodingBodyHandler implements HttpResponse.BodyHandler<byte[]> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecodingBodyHandler.class);
+
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int FHCRC = 2, FEXTRA = 4, FNAME = 8, FCOMMENT = 16;
+    private static final long MAX_PRESIZE = 64L * 1024 * 1024; // Larger declared lengths grow as the body arrives
+
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    @Override
+    public HttpResponse.BodySubscriber<byte[]> apply(HttpResponse.ResponseInfo responseInfo) {
+        String encoding = responseInfo.headers().firstValue("Content-Encoding").orElse("identity")
+                .trim().toLowerCase(Locale.ROOT);
+        long contentLength = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+        int initialSize = contentLength > 0 ? (int) Math.min(contentLength, MAX_PRESIZE) : 32;
+        return new DecodingSubscriber(encoding, initialSize);
+    }
+
+    /**
+     * Bytes received on the wire, compressed or not
+     */
+    long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    /**
+     * Bytes handed on after decoding
+     */
+    long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    /**
+     * Charset of a response's Content-Type, UTF-8 by default
+     */
+    static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                try {
+                    return Charset.forName(pair[1].trim().replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Unknown charset {}, decoding as UTF-8", pair[1]);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private enum Mode {
+        DETECT, IDENTITY, GZIP_HEADER, INFLATE, GZIP_TRAILER, DONE
+    }
+
+    /**
+     * Inflates chunks as they arrive. The HTTP client delivers chunks one at a time,
+     * so no locking is needed.
+     */
+    private final class DecodingSubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final String declaredEncoding;
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final BodyBuffer decoded;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(); // Bytes not yet consumed by the current mode
+        private final byte[] chunk = new byte[16 * 1024];
+        private final CRC32 crc = new CRC32();
+        private Flow.Subscription subscription;
+        private Mode mode = Mode.DETECT;
+        private Inflater inflater;
+        private boolean gzip;
+        private int gzipMembers; // Complete gzip members decoded so far
+        private long memberStart; // Decoded size when the current gzip member started
+
+        DecodingSubscriber(String declaredEncoding, int initialSize) {
+            this.declaredEncoding = declaredEncoding;
+            this.decoded = new BodyBuffer(initialSize);
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    int length = buffer.remaining();
+                    wireBytes.addAndGet(length);
+                    if (mode == Mode.IDENTITY) {
+                        write(buffer);
+                    } else {
+                        byte[] bytes = new byte[length];
+                        buffer.get(bytes);
+                        pending.write(bytes, 0, length);
+                        process();
+                    }
+                }
+            } catch (IOException | DataFormatException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            end();
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (body.isDone()) {
+                return;
+            }
+            try {
+                if (mode == Mode.DETECT) {
+                    // Too short to carry a compression header
+                    pending.writeTo(decoded);
+                } else if (mode == Mode.INFLATE || mode == Mode.GZIP_HEADER && (gzipMembers == 0 || pending.size() > 0)) {
+                    throw new IOException("Compressed response body is truncated");
+                } else if (mode == Mode.GZIP_TRAILER) {
+                    throw new IOException("Compressed response body has an incomplete gzip trailer");
+                }
+                end();
+                decodedBytes.addAndGet(decoded.size());
+                body.complete(decoded.toBody());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void process() throws IOException, DataFormatException {
+            boolean progress = true;
+            while (progress && pending.size() > 0) {
+                Mode previous = mode;
+                byte[] input = pending.toByteArray();
+                int consumed = switch (mode) {
+                    case DETECT -> detect(input);
+                    case GZIP_HEADER -> gzipHeader(input);
+                    case INFLATE -> inflate(input);
+                    case GZIP_TRAILER -> gzipTrailer(input);
+                    case IDENTITY -> {
+                        decoded.write(input, 0, input.length);
+                        yield input.length;
+                    }
+                    case DONE -> input.length;
+                };
+                progress = consumed > 0 || mode != previous;
+                pending.reset();
+                pending.write(input, consumed, input.length - consumed);
+            }
+        }
+
+        /**
+         * Pick the decoding from the magic bytes; returns 0 until enough bytes are available
+         */
+        private int detect(byte[] input) {
+            if (input.length < 2) {
+                return 0;
+            }
+            int first = input[0] & 0xff;
+            int second = input[1] & 0xff;
+            if (first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2) {
+                gzip = true;
+                mode = Mode.GZIP_HEADER;
+            } else if (declaredEncoding.equals("deflate")) {
+                // zlib-wrapped as the spec says, or raw deflate as some servers send
+                boolean zlib = (first & 0x0f) == 8 && (first * 256 + second) % 31 == 0;
+                inflater = new Inflater(!zlib);
+                mode = Mode.INFLATE;
+            } else {
+                if (!declaredEncoding.equals("identity")) {
+                    logger.warn("⚠️ Response declared Content-Encoding {} but is not gzip or deflate, passing it through",
+                               declaredEncoding);
+                }
+                mode = Mode.IDENTITY;
+            }
+            return 0;
+        }
+
+        /**
+         * Skip a gzip member header (RFC 1952); returns 0 until it is complete
+         */
+        private int gzipHeader(byte[] input) throws IOException {
+            if (gzipMembers > 0 && input.length >= 2 && ((input[0] & 0xff) != GZIP_MAGIC_1 || (input[1] & 0xff) != GZIP_MAGIC_2)) {
+                logger.debug("Ignoring {}+ bytes of padding after the gzip stream", input.length);
+                mode = Mode.DONE;
+                return input.length;
+            }
+            if (input.length < 10) {
+                return 0;
+            }
+            if ((input[0] & 0xff) != GZIP_MAGIC_1 || (input[1] & 0xff) != GZIP_MAGIC_2 || input[2] != 8) {
+                throw new IOException("Unsupported gzip header");
+            }
+            int flags = input[3] & 0xff;
+            int position = 10;
+            if ((flags & FEXTRA) != 0) {
+                if (input.length < position + 2) {
+                    return 0;
+                }
+                position += 2 + ((input[position] & 0xff) | (input[position + 1] & 0xff) << 8);
+            }
+            for (int field : new int[] {FNAME, FCOMMENT}) {
+                if ((flags & field) != 0) {
+                    while (position < input.length && input[position] != 0) {
+                        position++;
+                    }
+                    position++;
+                }
+            }
+            if ((flags & FHCRC) != 0) {
+                position += 2;
+            }
+            if (position > input.length) {
+                return 0;
+            }
+            inflater = new Inflater(true);
+            crc.reset();
+            memberStart = decoded.size();
+            mode = Mode.INFLATE;
+            return position;
+        }
+
+        private int inflate(byte[] input) throws DataFormatException {
+            inflater.setInput(input);
+            int produced;
+            while ((produced = inflater.inflate(chunk)) > 0) {
+                decoded.write(chunk, 0, produced);
+                if (gzip) {
+                    crc.update(chunk, 0, produced);
+                }
+            }
+            int consumed = input.length - inflater.getRemaining();
+            if (inflater.finished()) {
+                inflater.end();
+                inflater = null;
+                mode = gzip ? Mode.GZIP_TRAILER : Mode.DONE;
+            } else if (inflater.needsDictionary()) {
+                throw new DataFormatException("Deflate stream needs a preset dictionary");
+            }
+            return consumed;
+        }
+
+        /**
+         * Check the member's CRC and size, then look for a further member
+         */
+        private int gzipTrailer(byte[] input) throws IOException {
+            if (input.length < GZIP_TRAILER_LENGTH) {
+                return 0;
+            }
+            long expectedCrc = readInt(input, 0);
+            long expectedSize = readInt(input, 4);
+            if (expectedCrc != crc.getValue() || expectedSize != ((decoded.size() - memberStart) & 0xffffffffL)) {
+                throw new IOException("Corrupt gzip response body: checksum mismatch");
+            }
+            gzipMembers++;
+            mode = Mode.GZIP_HEADER; // Concatenated members are allowed
+            return GZIP_TRAILER_LENGTH;
+        }
+
+        private void write(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                int length = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, length);
+                decoded.write(chunk, 0, length);
+            }
+        }
+
+        private void fail(Exception e) {
+            end();
+            subscription.cancel();
+            body.completeExceptionally(e instanceof IOException ? e : new IOException("Failed to decode response body", e));
+        }
+
+        private void end() {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+    }
+
+    /**
+     * Output stream that hands over its array instead of copying it when the body filled it exactly
+     */
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+        BodyBuffer(int size) {
+            super(size);
+        }
+
+        synchronized byte[] toBody() {
+            return count == buf.length ? buf : Arrays.copyOf(buf, count);
+        }
+    }
+
+    private static long readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xffL) | (bytes[offset + 1] & 0xffL) << 8
+                | (bytes[offset + 2] & 0xffL) << 16 | (bytes[offset + 3] & 0xffL) << 24;
+    }
+}
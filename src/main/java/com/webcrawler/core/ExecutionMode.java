@@ -0,0 +1,23 @@
+package com.webcrawler.core;
+
+/**
+ * How crawl tasks are executed by {@link ApiCrawler}
+ */
+public enum ExecutionMode {
+    /** Fixed pool of platform threads sized by --threads */
+    PLATFORM,
+    /** One virtual thread per task (requires Java 21+) */
+    VIRTUAL;
+    
+    /**
+     * Parse a CLI value such as "platform" or "virtual"
+     */
+    public static ExecutionMode fromString(String value) {
+        for (ExecutionMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown executor mode: " + value + " (expected platform or virtual)");
+    }
+}
@@ -0,0 +1,172 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host circuit breaker.
+ *
+ * CLOSED: requests flow and consecutive failures are counted. Once they reach the
+ * threshold the breaker OPENs and requests to the host fail fast. After the open
+ * interval the breaker goes HALF_OPEN and lets a single probe through: success closes
+ * it again, failure re-opens it for another interval.
+ */
+public class HostCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Map<String, HostState> hosts;
+    private volatile int failureThreshold;
+    private volatile long openDurationMs;
+
+    /**
+     * @param failureThreshold consecutive failures that open the breaker (0 or less disables it)
+     * @param openDurationMs how long the breaker stays open before probing the host again
+     */
+    public HostCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.hosts = new ConcurrentHashMap<>();
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Check whether a request to the host may be sent now.
+     * In HALF_OPEN state only one probe is allowed until its outcome is recorded.
+     */
+    public boolean allowRequest(String host) {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        return hosts.computeIfAbsent(host, h -> new HostState()).allowRequest(host, openDurationMs);
+    }
+
+    /**
+     * Check without changing state whether requests to the host are currently being rejected,
+     * so callers can fail fast before queueing for other per-host limits
+     */
+    public boolean isRejecting(String host) {
+        HostState state = hosts.get(host);
+        return failureThreshold > 0 && state != null && state.isRejecting(openDurationMs);
+    }
+
+    public void recordSuccess(String host) {
+        HostState state = hosts.get(host);
+        if (state != null) {
+            state.recordSuccess(host);
+        }
+    }
+
+    public void recordFailure(String host) {
+        HostState state = hosts.get(host);
+        if (state != null) {
+            state.recordFailure(host, failureThreshold);
+        }
+    }
+
+    public State getState(String host) {
+        HostState state = hosts.get(host);
+        return state != null ? state.getState() : State.CLOSED;
+    }
+
+    /**
+     * Change the threshold and open interval. Existing host states are kept.
+     */
+    public void configure(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public long getOpenDurationMs() {
+        return openDurationMs;
+    }
+
+    public Map<String, String> getStateByHost() {
+        Map<String, String> states = new HashMap<>();
+        hosts.forEach((host, state) -> states.put(host, state.getState().name()));
+        return states;
+    }
+
+    public int getOpenCount() {
+        return (int) hosts.values().stream().filter(state -> state.getState() != State.CLOSED).count();
+    }
+
+    /**
+     * Breaker state for a single host
+     */
+    private static class HostState {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean probeInFlight;
+
+        synchronized boolean allowRequest(String host, long openDurationMs) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    logger.info("🔌 Circuit breaker HALF_OPEN for host {}, sending probe request", host);
+                    return true;
+                case HALF_OPEN:
+                default:
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized boolean isRejecting(long openDurationMs) {
+            if (state == State.OPEN) {
+                return System.currentTimeMillis() - openedAt < openDurationMs;
+            }
+            return state == State.HALF_OPEN && probeInFlight;
+        }
+
+        synchronized void recordSuccess(String host) {
+            if (state != State.CLOSED) {
+                logger.info("✅ Circuit breaker CLOSED for host {} after successful probe", host);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+
+        synchronized void recordFailure(String host, int failureThreshold) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN) {
+                open(host, "probe failed");
+            } else if (state == State.CLOSED && failureThreshold > 0 && consecutiveFailures >= failureThreshold) {
+                open(host, consecutiveFailures + " consecutive failures");
+            }
+        }
+
+        private void open(String host, String reason) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+            logger.warn("🚫 Circuit breaker OPEN for host {} ({}), failing fast", host, reason);
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host admission control for in-flight requests.
+ *
+ * Each host may have at most a limited number of requests in flight. Further requests
+ * are queued per host in arrival order and receive their slot as soon as one is released,
+ * so waiting requests hold no thread.
+ *
+ * In adaptive mode the limit follows AIMD: it grows additively (about one slot per round
+ * trip) while latency stays near the host's baseline, and is halved on overload signals
+ * such as 429, 503 or timeouts.
+ */
+public class HostConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostConcurrencyLimiter.class);
+
+    // Latency above this multiple of the baseline stops additive increase and shrinks the limit
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double LATENCY_SHRINK_FACTOR = 0.9;
+
+    private final int maxInFlightPerHost;
+    private final Map<String, HostSlots> hosts;
+    private volatile boolean adaptive;
+    private volatile int adaptiveCeiling;
+
+    /**
+     * @param maxInFlightPerHost maximum concurrent requests per host (0 or less disables the limit)
+     */
+    public HostConcurrencyLimiter(int maxInFlightPerHost) {
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.hosts = new ConcurrentHashMap<>();
+        this.adaptiveCeiling = maxInFlightPerHost;
+    }
+
+    /**
+     * Enable AIMD adaptation. Limits start at the configured per-host maximum and
+     * move between one and the given ceiling.
+     */
+    public void enableAdaptive(int ceiling) {
+        this.adaptiveCeiling = Math.max(ceiling, maxInFlightPerHost);
+        this.adaptive = true;
+    }
+
+    /**
+     * Request a slot for the given host.
+     * The returned future completes once the request may be sent; the caller must call {@link #release(String)} afterwards.
+     */
+    public CompletableFuture<Void> acquire(String host) {
+        if (maxInFlightPerHost <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return hosts.computeIfAbsent(host, h -> new HostSlots(maxInFlightPerHost)).acquire(host);
+    }
+
+    /**
+     * Take a slot for the given host only if one is free right now, without queueing.
+     * On success the caller must call {@link #release(String)} afterwards.
+     */
+    public boolean tryAcquire(String host) {
+        if (maxInFlightPerHost <= 0) {
+            return true;
+        }
+        return hosts.computeIfAbsent(host, h -> new HostSlots(maxInFlightPerHost)).tryAcquire();
+    }
+
+    /**
+     * Release a slot previously acquired for the given host
+     */
+    public void release(String host) {
+        HostSlots slots = hosts.get(host);
+        if (slots != null) {
+            slots.release();
+        }
+    }
+
+    /**
+     * Feed a successful response latency into the host's adaptive limit
+     */
+    public void onSuccess(String host, long latencyNanos) {
+        HostSlots slots = hosts.get(host);
+        if (adaptive && slots != null) {
+            slots.onSuccess(latencyNanos, adaptiveCeiling);
+        }
+    }
+
+    /**
+     * Signal that the host is overloaded (429, 503, timeout) and cut its limit
+     */
+    public void onOverload(String host) {
+        HostSlots slots = hosts.get(host);
+        if (adaptive && slots != null) {
+            slots.onOverload(host);
+        }
+    }
+
+    /**
+     * Check whether a request to the host would be admitted right away
+     */
+    public boolean hasCapacity(String host) {
+        HostSlots slots = hosts.get(host);
+        return maxInFlightPerHost <= 0 || slots == null || slots.hasCapacity();
+    }
+
+    /**
+     * Highest limit a host can reach: the adaptive ceiling, or the fixed limit (0 if unlimited)
+     */
+    public int getMaxLimit() {
+        return adaptive ? adaptiveCeiling : maxInFlightPerHost;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public int getMaxInFlightPerHost() {
+        return maxInFlightPerHost;
+    }
+
+    public Map<String, Integer> getInFlightByHost() {
+        Map<String, Integer> inFlight = new HashMap<>();
+        hosts.forEach((host, slots) -> inFlight.put(host, slots.getInFlight()));
+        return inFlight;
+    }
+
+    public Map<String, Integer> getLimitByHost() {
+        Map<String, Integer> limits = new HashMap<>();
+        hosts.forEach((host, slots) -> limits.put(host, slots.getLimit()));
+        return limits;
+    }
+
+    public Map<String, Integer> getQueuedByHost() {
+        Map<String, Integer> queued = new HashMap<>();
+        hosts.forEach((host, slots) -> queued.put(host, slots.getQueued()));
+        return queued;
+    }
+
+    public int getTotalInFlight() {
+        return hosts.values().stream().mapToInt(HostSlots::getInFlight).sum();
+    }
+
+    public int getTotalQueued() {
+        return hosts.values().stream().mapToInt(HostSlots::getQueued).sum();
+    }
+
+    /**
+     * Slot accounting and AIMD state for a single host
+     */
+    private static class HostSlots {
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private double limit;
+        private int inFlight;
+        private double baselineLatencyNanos;
+        private long lastDecreaseNanos;
+
+        HostSlots(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized CompletableFuture<Void> acquire(String host) {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            logger.debug("🚦 Host {} at {} in-flight requests, queued request ({} waiting)", host, inFlight, waiters.size());
+            return waiter;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (waiters.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            return false;
+        }
+
+        void release() {
+            List<CompletableFuture<Void>> admitted;
+            synchronized (this) {
+                inFlight--;
+                admitted = admitWaiters();
+            }
+            // Complete outside the lock: each waiter's continuation starts the next request
+            admitted.forEach(waiter -> waiter.complete(null));
+        }
+
+        void onSuccess(long latencyNanos, int ceiling) {
+            List<CompletableFuture<Void>> admitted;
+            synchronized (this) {
+                if (baselineLatencyNanos == 0 || latencyNanos < baselineLatencyNanos) {
+                    baselineLatencyNanos = latencyNanos;
+                } else {
+                    // Let the baseline drift slowly so it follows lasting changes
+                    baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * 0.01;
+                }
+
+                if (latencyNanos <= baselineLatencyNanos * LATENCY_TOLERANCE) {
+                    limit = Math.min(ceiling, limit + 1.0 / limit);
+                } else {
+                    limit = Math.max(1.0, limit * LATENCY_SHRINK_FACTOR);
+                }
+                admitted = admitWaiters();
+            }
+            admitted.forEach(waiter -> waiter.complete(null));
+        }
+
+        synchronized void onOverload(String host) {
+            // Requests already in flight fail together; cut at most once per baseline round trip
+            long now = System.nanoTime();
+            long window = Math.max((long) baselineLatencyNanos, TimeUnit.MILLISECONDS.toNanos(100));
+            if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < window) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            double previous = limit;
+            limit = Math.max(1.0, limit * DECREASE_FACTOR);
+            logger.info("📉 Host {} overloaded, concurrency limit {} -> {}", host, (int) previous, (int) limit);
+        }
+
+        private List<CompletableFuture<Void>> admitWaiters() {
+            List<CompletableFuture<Void>> admitted = new ArrayList<>();
+            while (inFlight < currentLimit() && !waiters.isEmpty()) {
+                inFlight++;
+                admitted.add(waiters.poll());
+            }
+            return admitted;
+        }
+
+        private int currentLimit() {
+            return Math.max(1, (int) limit);
+        }
+
+        synchronized boolean hasCapacity() {
+            return waiters.isEmpty() && inFlight < currentLimit();
+        }
+
+        synchronized int getLimit() {
+            return currentLimit();
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        synchronized int getQueued() {
+            return waiters.size();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host token bucket rate limiter.
+ *
+ * Each host gets its own bucket that refills at a fixed rate up to a burst size.
+ * Permits are handed out as futures: when a bucket is empty the caller receives a
+ * future that is completed later by the scheduler, so no thread is parked while waiting.
+ * A host can also be paused until a given time, e.g. when the server sends Retry-After.
+ */
+public class HostRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostRateLimiter.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, TokenBucket> buckets;
+    private volatile double permitsPerSecond;
+    private volatile int burst;
+
+    /**
+     * @param permitsPerSecond sustained requests per second per host (0 or less disables limiting)
+     * @param burst maximum number of requests a host may receive back-to-back
+     * @param scheduler scheduler used to complete delayed permits
+     */
+    public HostRateLimiter(double permitsPerSecond, int burst, ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        this.buckets = new ConcurrentHashMap<>();
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Reserve a permit for the given host.
+     * The returned future completes once the request may be sent.
+     */
+    public CompletableFuture<Void> acquire(String host) {
+        TokenBucket bucket = permitsPerSecond > 0 
+                ? buckets.computeIfAbsent(host, h -> new TokenBucket(permitsPerSecond, burst)) 
+                : buckets.get(host); // Unlimited: a bucket only exists if the host was paused
+        if (bucket == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long waitNanos = bucket.reserve();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        logger.debug("⏳ Rate limit reached for host: {}, delaying request by {}ms", host, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        try {
+            scheduler.schedule(() -> permit.complete(null), waitNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            permit.completeExceptionally(e);
+        }
+        return permit;
+    }
+
+    /**
+     * Take a permit only if one is available right now, for optional requests such as hedges
+     */
+    public boolean tryAcquire(String host) {
+        TokenBucket bucket = permitsPerSecond > 0 
+                ? buckets.computeIfAbsent(host, h -> new TokenBucket(permitsPerSecond, burst)) 
+                : buckets.get(host);
+        return bucket == null || bucket.tryReserve();
+    }
+
+    /**
+     * Hold all requests to a host for the given time. Requests queued during the pause
+     * resume at the configured rate rather than all at once.
+     */
+    public void pauseHost(String host, long delayMillis) {
+        if (delayMillis <= 0) {
+            return;
+        }
+        buckets.computeIfAbsent(host, h -> new TokenBucket(permitsPerSecond, burst))
+               .pauseUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        logger.info("⏸️ Pausing requests to host {} for {}ms", host, delayMillis);
+    }
+
+    /**
+     * Change the rate and burst for all hosts. Existing buckets keep their state, so a
+     * host paused by Retry-After stays paused until the pause expires.
+     */
+    public void configure(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        buckets.values().forEach(bucket -> bucket.reconfigure(permitsPerSecond, this.burst));
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int getTrackedHostCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Token bucket using reservations: each request reserves the next free slot, so
+     * callers that arrive while the bucket is empty are spaced out at the refill rate.
+     */
+    private static class TokenBucket {
+        private long intervalNanos;
+        private double capacity;
+        private double storedTokens;
+        private long nextFreeNanos;
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            setRate(permitsPerSecond, burst);
+            this.storedTokens = capacity;
+            this.nextFreeNanos = System.nanoTime();
+        }
+
+        /**
+         * Switch to a new rate and burst; tokens earned so far are kept up to the new
+         * capacity, and reservations and pauses already made stand
+         */
+        synchronized void reconfigure(double permitsPerSecond, int burst) {
+            refill(System.nanoTime());
+            setRate(permitsPerSecond, burst);
+            storedTokens = Math.min(storedTokens, capacity);
+        }
+
+        private void setRate(double permitsPerSecond, int burst) {
+            this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+            // The first request of a burst is paid for by the next caller's wait, so store one less
+            this.capacity = burst - 1;
+        }
+
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            refill(now);
+
+            long waitNanos = Math.max(0, nextFreeNanos - now);
+            double fromStored = Math.min(1, storedTokens);
+            storedTokens -= fromStored;
+            nextFreeNanos += (long) ((1 - fromStored) * intervalNanos);
+            return waitNanos;
+        }
+
+        synchronized boolean tryReserve() {
+            if (nextFreeNanos > System.nanoTime()) {
+                return false;
+            }
+            reserve();
+            return true;
+        }
+
+        synchronized void pauseUntil(long untilNanos) {
+            refill(System.nanoTime());
+            if (untilNanos > nextFreeNanos) {
+                nextFreeNanos = untilNanos;
+                storedTokens = 0;
+            }
+        }
+
+        private void refill(long now) {
+            if (now > nextFreeNanos) {
+                if (intervalNanos > 0) {
+                    storedTokens = Math.min(capacity, storedTokens + (double) (now - nextFreeNanos) / intervalNanos);
+                } else {
+                    storedTokens = capacity;
+                }
+                nextFreeNanos = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.webcrawler.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Per-host URL queues served round-robin.
+ *
+ * Workers take URLs from the hosts in turn, preferring hosts that can accept another
+ * request right now, so one busy host neither starves the others nor leaves workers idle
+ * while it still has URLs.
+ */
+final class HostWorkQueue {
+
+    private final Map<String, Deque<String>> queues = new HashMap<>();
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private int remaining;
+
+    HostWorkQueue(Map<String, List<String>> urlsByHost) {
+        urlsByHost.forEach((host, urls) -> {
+            if (!urls.isEmpty()) {
+                queues.put(host, new ArrayDeque<>(urls));
+                rotation.add(host);
+                remaining += urls.size();
+            }
+        });
+    }
+
+    /**
+     * Take the next URL from the first host in rotation with spare capacity, or from the
+     * next host in rotation if none has any. Returns null when every queue is empty.
+     */
+    synchronized String next(Predicate<String> hasCapacity) {
+        for (int i = 0; i < rotation.size(); i++) {
+            String host = rotation.poll();
+            rotation.add(host);
+            if (hasCapacity.test(host)) {
+                return take(host);
+            }
+        }
+        String host = rotation.poll();
+        if (host == null) {
+            return null;
+        }
+        rotation.add(host);
+        return take(host);
+    }
+
+    synchronized int remaining() {
+        return remaining;
+    }
+
+    private String take(String host) {
+        Deque<String> queue = queues.get(host);
+        String url = queue.poll();
+        remaining--;
+        if (queue.isEmpty()) {
+            queues.remove(host);
+            rotation.remove(host);
+        }
+        return url;
+    }
+}
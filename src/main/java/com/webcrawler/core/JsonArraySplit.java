@@ -0,0 +1,230 @@
+package com.webcrawler.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The element boundaries of the largest array in a UTF-8 JSON document, found in one
+ * scan over the raw bytes.
+ *
+ * The scan only follows strings, escapes and brackets, so it is much cheaper than
+ * tokenizing: string contents, the bulk of a typical body, are skipped eight bytes at a
+ * time. It does not validate the document: a malformed body either yields no split
+ * or fails later when the elements are parsed. Only arrays reached through object
+ * properties from the root (such as {@code response.results}) are considered, so the
+ * array can be located again by its property path.
+ */
+final class JsonArraySplit {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+
+    private final List<String> path;
+    private final int[] separators; // '[', the commas between elements, then ']'
+
+    private JsonArraySplit(List<String> path, int[] separators) {
+        this.path = path;
+        this.separators = separators;
+    }
+
+    /**
+     * Scan the body for its largest array spanning at least minSpan bytes, or return null
+     * if there is none or the body is not well-formed enough to split
+     */
+    static JsonArraySplit scan(byte[] body, int minSpan) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        JsonArraySplit best = null;
+        int bestSpan = minSpan - 1;
+        for (int i = 0; i < body.length; i++) {
+            switch (body[i]) {
+                case '"' -> {
+                    int end = skipString(body, i + 1);
+                    if (end < 0) {
+                        return null;
+                    }
+                    Frame top = stack.peek();
+                    if (top != null && top.awaitingKey) {
+                        top.keyStart = i + 1;
+                        top.keyEnd = end;
+                    }
+                    i = end;
+                }
+                case ':' -> {
+                    Frame top = stack.peek();
+                    if (top == null || !top.awaitingKey) {
+                        return null;
+                    }
+                    top.awaitingKey = false;
+                }
+                case ',' -> {
+                    Frame top = stack.peek();
+                    if (top == null) {
+                        return null;
+                    }
+                    if (top.separators != null) {
+                        top.addSeparator(i);
+                    } else {
+                        top.awaitingKey = true;
+                    }
+                }
+                case '{' -> stack.push(Frame.object());
+                case '[' -> stack.push(Frame.array(i));
+                case '}' -> {
+                    if (stack.isEmpty() || stack.pop().separators != null) {
+                        return null;
+                    }
+                }
+                case ']' -> {
+                    if (stack.isEmpty() || stack.peek().separators == null) {
+                        return null;
+                    }
+                    Frame array = stack.pop();
+                    int span = i - array.separators[0];
+                    if (span > bestSpan) {
+                        List<String> arrayPath = pathOf(body, stack);
+                        if (arrayPath != null) {
+                            array.addSeparator(i);
+                            best = new JsonArraySplit(arrayPath, Arrays.copyOf(array.separators, array.count));
+                            bestSpan = span;
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return stack.isEmpty() ? best : null;
+    }
+
+    /**
+     * Offset of the quote closing the string starting at from, or -1 if it is unterminated
+     */
+    private static int skipString(byte[] body, int from) {
+        int i = from;
+        while (i < body.length) {
+            if (i + Long.BYTES <= body.length) {
+                long word = (long) LONGS.get(body, i);
+                if (!containsQuoteOrBackslash(word)) {
+                    i += Long.BYTES;
+                    continue;
+                }
+            }
+            byte b = body[i];
+            if (b == '"') {
+                return i;
+            }
+            i += b == '\\' ? 2 : 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Whether any byte of the word is a quote or a backslash (the classic zero-byte test
+     * applied to the word xor-ed with each pattern)
+     */
+    private static boolean containsQuoteOrBackslash(long word) {
+        long quotes = word ^ QUOTES;
+        long backslashes = word ^ BACKSLASHES;
+        return (((quotes - ONES) & ~quotes | (backslashes - ONES) & ~backslashes) & HIGH_BITS) != 0;
+    }
+
+    /**
+     * Property names from the root down to the current position, or null if the path
+     * runs through an array or a name with escapes
+     */
+    private static List<String> pathOf(byte[] body, Deque<Frame> stack) {
+        List<String> names = new ArrayList<>(stack.size());
+        for (Iterator<Frame> frames = stack.descendingIterator(); frames.hasNext(); ) {
+            Frame frame = frames.next();
+            if (frame.separators != null || frame.keyEnd < frame.keyStart) {
+                return null;
+            }
+            for (int i = frame.keyStart; i < frame.keyEnd; i++) {
+                if (body[i] == '\\') {
+                    return null;
+                }
+            }
+            names.add(new String(body, frame.keyStart, frame.keyEnd - frame.keyStart, StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Property names leading from the root to the array; empty when the root is the array
+     */
+    List<String> path() {
+        return path;
+    }
+
+    /**
+     * Offset of the array's opening bracket
+     */
+    int arrayStart() {
+        return separators[0];
+    }
+
+    /**
+     * Offset of the array's closing bracket
+     */
+    int arrayEnd() {
+        return separators[separators.length - 1];
+    }
+
+    int elementCount() {
+        return separators.length - 1;
+    }
+
+    /**
+     * Start of the element's bytes, possibly with leading whitespace
+     */
+    int elementStart(int index) {
+        return separators[index] + 1;
+    }
+
+    /**
+     * End (exclusive) of the element's bytes, possibly with trailing whitespace
+     */
+    int elementEnd(int index) {
+        return separators[index + 1];
+    }
+
+    private static final class Frame {
+        private int[] separators; // Null for objects
+        private int count;
+        private boolean awaitingKey;
+        private int keyStart;
+        private int keyEnd = -1;
+
+        static Frame object() {
+            Frame frame = new Frame();
+            frame.awaitingKey = true;
+            return frame;
+        }
+
+        static Frame array(int start) {
+            Frame frame = new Frame();
+            frame.separators = new int[8];
+            frame.addSeparator(start);
+            return frame;
+        }
+
+        void addSeparator(int offset) {
+            if (count == separators.length) {
+                separators = Arrays.copyOf(separators, count * 2);
+            }
+            separators[count++] = offset;
+        }
+    }
+}
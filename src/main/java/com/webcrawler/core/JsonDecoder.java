@@ -0,0 +1,302 @@
+package com.webcrawler.core;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Binds response bodies straight to their target type in one pass.
+ *
+ * Readers are built once per target type and reused; ObjectReader is immutable, so one
+ * decoder can be shared by all threads. Paths configured with
+ * {@link #setDroppedPaths(Collection)} are skipped while the tokens are read, so they are
+ * never materialized in any target type.
+ *
+ * Large UTF-8 bodies whose bulk is one array, such as Guardian's {@code response.results},
+ * can be decoded on a fork/join pool: the element boundaries are found in one byte scan
+ * ({@link JsonArraySplit}), chunks of elements are bound in parallel, and the bound
+ * elements are spliced back into the rest of the document in their original order.
+ */
+public class JsonDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonDecoder.class);
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final int MIN_PARALLEL_BYTES = 64 * 1024; // Smaller bodies parse faster in one go
+    private static final int MIN_CHUNK_BYTES = 16 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4; // Spare chunks even out uneven elements
+
+    private final ObjectMapper objectMapper;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<ArrayLocation, Optional<JavaType>> elementTypes = new ConcurrentHashMap<>();
+    private final ObjectReader mapReader;
+    private volatile JsonPathFilter droppedPaths; // Null keeps everything
+
+    public JsonDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.mapReader = readerFor(objectMapper.getTypeFactory().constructType(MAP_TYPE));
+    }
+
+    /**
+     * Leave the properties at these dotted paths out of everything decoded; arrays along a path are transparent
+     */
+    public void setDroppedPaths(Collection<String> paths) {
+        droppedPaths = JsonPathFilter.dropping(paths);
+    }
+
+    public boolean isDroppingPaths() {
+        return droppedPaths != null;
+    }
+
+    /**
+     * Decode a JSON object into a map
+     */
+    public Map<String, Object> decodeMap(byte[] body, Charset charset) throws IOException {
+        return decode(body, charset, mapReader);
+    }
+
+    /**
+     * Decode a JSON document into the given type
+     */
+    public <T> T decode(byte[] body, Charset charset, Class<T> type) throws IOException {
+        return decode(body, charset, readerFor(objectMapper.getTypeFactory().constructType(type)));
+    }
+
+    /**
+     * Decode a JSON object into a map, binding the elements of its largest array in parallel on the pool
+     */
+    public Map<String, Object> decodeMap(byte[] body, Charset charset, ForkJoinPool pool) throws IOException {
+        return decode(body, charset, mapReader.getValueType(), pool);
+    }
+
+    /**
+     * Decode a JSON document into the given type, binding the elements of its largest array
+     * in parallel on the pool. Bodies too small or not shaped for splitting are decoded in one pass.
+     */
+    public <T> T decode(byte[] body, Charset charset, Class<T> type, ForkJoinPool pool) throws IOException {
+        return decode(body, charset, objectMapper.getTypeFactory().constructType(type), pool);
+    }
+
+    private ObjectReader readerFor(JavaType type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * Jackson detects UTF-8/16/32 from the bytes itself; bodies in other charsets are decoded to text first
+     */
+    private <T> T decode(byte[] body, Charset charset, ObjectReader reader) throws IOException {
+        JsonParser source = charset.name().startsWith("UTF-")
+                ? reader.createParser(body)
+                : reader.createParser(new String(body, charset));
+        try (JsonParser parser = filtered(source, droppedPaths)) {
+            return reader.readValue(parser);
+        }
+    }
+
+    private <T> T decode(byte[] body, Charset charset, JavaType type, ForkJoinPool pool) throws IOException {
+        ObjectReader reader = readerFor(type);
+        boolean splittable = body.length >= MIN_PARALLEL_BYTES 
+                && (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII))
+                && Runtime.getRuntime().availableProcessors() > 1; // One core gains nothing from the extra scan
+        JsonArraySplit split = splittable ? JsonArraySplit.scan(body, body.length / 2) : null;
+        if (split == null || split.elementCount() < 2) {
+            return decode(body, charset, reader);
+        }
+        JavaType elementType = elementType(type, split.path());
+        JsonPathFilter filter = droppedPaths;
+        TokenFilter elementFilter = filter != null ? filter.at(split.path()) : TokenFilter.INCLUDE_ALL;
+        if (elementType == null || elementFilter == null) {
+            return decode(body, charset, reader);
+        }
+        
+        try {
+            Object[] elements = bindElements(body, split, readerFor(elementType), elementFilter, pool);
+            return splice(body, split, elements, reader, filter);
+        } catch (IOException | UncheckedIOException e) {
+            // Parse the whole body once more so a malformed document fails with a precise error
+            logger.debug("Parallel decoding failed, decoding in one pass: {}", e.getMessage());
+            return decode(body, charset, reader);
+        }
+    }
+
+    private Object[] bindElements(byte[] body, JsonArraySplit split, ObjectReader elementReader, 
+                                  TokenFilter elementFilter, ForkJoinPool pool) {
+        Object[] elements = new Object[split.elementCount()];
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, 
+                (split.arrayEnd() - split.arrayStart()) / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        BindElements task = new BindElements(body, split, elementReader, elementFilter, elements, 0, elements.length, chunkBytes);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke(); // Already on the pool: fork the chunks here and help run them
+        } else {
+            pool.invoke(task);
+        }
+        return elements;
+    }
+
+    /**
+     * Parse the document with the split array emptied and put the bound elements in its place
+     */
+    private <T> T splice(byte[] body, JsonArraySplit split, Object[] elements, ObjectReader reader, 
+                         JsonPathFilter filter) throws IOException {
+        int head = split.arrayStart() + 1;
+        byte[] skeleton = new byte[head + body.length - split.arrayEnd()];
+        System.arraycopy(body, 0, skeleton, 0, head);
+        System.arraycopy(body, split.arrayEnd(), skeleton, head, body.length - split.arrayEnd());
+        
+        TokenBuffer tokens = new TokenBuffer(null, false); // Without a codec the elements stay embedded as they are
+        boolean spliced = false;
+        try (JsonParser parser = filtered(reader.createParser(skeleton), filter)) {
+            while (parser.nextToken() != null) {
+                if (!spliced && parser.currentToken() == JsonToken.START_ARRAY && isAt(parser.getParsingContext(), split.path())) {
+                    tokens.writeStartArray();
+                    for (Object element : elements) {
+                        tokens.writeObject(element);
+                    }
+                    spliced = true;
+                } else {
+                    tokens.copyCurrentEvent(parser);
+                }
+            }
+        }
+        if (!spliced) {
+            throw new IOException("Split array not found at " + String.join(".", split.path()));
+        }
+        try (JsonParser parser = tokens.asParser()) {
+            return reader.readValue(parser);
+        }
+    }
+
+    /**
+     * Whether an array context sits at the given property path from the root
+     */
+    private static boolean isAt(JsonStreamContext context, List<String> path) {
+        JsonStreamContext parent = context.getParent();
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (parent == null || !parent.inObject() || !path.get(i).equals(parent.getCurrentName())) {
+                return false;
+            }
+            parent = parent.getParent();
+        }
+        return parent != null && parent.inRoot();
+    }
+
+    /**
+     * Type the elements of the array at the path bind to, or null if the target type does
+     * not declare it (the array would be ignored, so splitting it gains nothing)
+     */
+    private JavaType elementType(JavaType type, List<String> path) {
+        return elementTypes.computeIfAbsent(new ArrayLocation(type, path), location -> {
+            JavaType current = type;
+            for (String name : path) {
+                current = propertyType(current, name);
+                if (current == null) {
+                    return Optional.empty();
+                }
+            }
+            if (current.isCollectionLikeType() || current.isArrayType()) {
+                return Optional.of(current.getContentType());
+            }
+            return current.isJavaLangObject() ? Optional.of(current) : Optional.empty();
+        }).orElse(null);
+    }
+
+    private JavaType propertyType(JavaType type, String name) {
+        if (type.isJavaLangObject()) {
+            return type;
+        }
+        if (type.isMapLikeType()) {
+            return type.getContentType();
+        }
+        if (type.isContainerType() || type.isPrimitive() || type.isEnumType()) {
+            return null;
+        }
+        BeanDescription bean = objectMapper.getDeserializationConfig().introspect(type);
+        for (BeanPropertyDefinition property : bean.findProperties()) {
+            if (property.getName().equals(name) && property.couldDeserialize()) {
+                return property.getPrimaryType();
+            }
+        }
+        return null;
+    }
+
+    private static JsonParser filtered(JsonParser parser, TokenFilter filter) {
+        return filter == null || filter == TokenFilter.INCLUDE_ALL ? parser
+                : new FilteringParserDelegate(parser, filter, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+
+    private record ArrayLocation(JavaType type, List<String> path) {
+    }
+
+    /**
+     * Binds a range of array elements, halving it until a chunk is small enough to bind on one thread
+     */
+    @SuppressWarnings("serial") // Fork/join tasks are never serialized
+    private static final class BindElements extends RecursiveAction {
+        private final byte[] body;
+        private final JsonArraySplit split;
+        private final ObjectReader reader;
+        private final TokenFilter filter;
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+        private final int chunkBytes;
+
+        BindElements(byte[] body, JsonArraySplit split, ObjectReader reader, TokenFilter filter, 
+                     Object[] elements, int from, int to, int chunkBytes) {
+            this.body = body;
+            this.split = split;
+            this.reader = reader;
+            this.filter = filter;
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.chunkBytes = chunkBytes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && split.elementEnd(to - 1) - split.elementStart(from) > chunkBytes) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BindElements(body, split, reader, filter, elements, from, middle, chunkBytes),
+                          new BindElements(body, split, reader, filter, elements, middle, to, chunkBytes));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int start = split.elementStart(i);
+                try (JsonParser parser = filtered(reader.createParser(body, start, split.elementEnd(i) - start), filter)) {
+                    elements[i] = reader.readValue(parser);
+                    if (parser.nextToken() != null) {
+                        throw new JsonParseException(parser, "Missing comma between array elements");
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to bind element " + i + " of " + String.join(".", split.path()), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.webcrawler.core;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson token filter that drops the properties at the given dotted paths while
+ * parsing, so they are never materialized.
+ *
+ * Arrays are transparent: {@code response.results.fields.body} drops {@code body} from
+ * the {@code fields} of every element of {@code response.results}. Everything outside
+ * the listed paths passes through unchanged.
+ */
+final class JsonPathFilter extends TokenFilter {
+
+    private final Map<String, JsonPathFilter> children = new HashMap<>();
+    private boolean dropped;
+
+    private JsonPathFilter() {
+    }
+
+    /**
+     * Build a filter dropping the given paths, or null if there are none
+     */
+    static JsonPathFilter dropping(Collection<String> paths) {
+        JsonPathFilter root = new JsonPathFilter();
+        for (String path : paths) {
+            if (path.isBlank()) {
+                continue;
+            }
+            JsonPathFilter node = root;
+            for (String name : path.strip().split("\\.")) {
+                node = node.children.computeIfAbsent(name, key -> new JsonPathFilter());
+            }
+            node.dropped = true;
+        }
+        return root.children.isEmpty() ? null : root;
+    }
+
+    /**
+     * The filter that applies below the given property path: {@link TokenFilter#INCLUDE_ALL}
+     * if nothing there is dropped, null if the path itself is dropped
+     */
+    TokenFilter at(List<String> path) {
+        TokenFilter filter = this;
+        for (String name : path) {
+            if (!(filter instanceof JsonPathFilter node)) {
+                break;
+            }
+            filter = node.includeProperty(name);
+        }
+        return filter;
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+        JsonPathFilter child = children.get(name);
+        if (child == null) {
+            return TokenFilter.INCLUDE_ALL;
+        }
+        return child.dropped ? null : child;
+    }
+
+    @Override
+    public TokenFilter includeElement(int index) {
+        return this;
+    }
+
+    @Override
+    public boolean includeEmptyObject(boolean contentsFiltered) {
+        return true;
+    }
+
+    /**
+     * Keep arrays that were empty in the input. jackson-core 2.15 also asks this when
+     * closing an object whose properties were partly dropped, so a partly filtered
+     * container must answer false or the dropped name leaks out.
+     */
+    @Override
+    public boolean includeEmptyArray(boolean contentsFiltered) {
+        return !contentsFiltered;
+    }
+
+    @Override
+    protected boolean _includeScalar() {
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.webcrawler.core;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Parses server-provided back-off hints from response headers:
+ * Retry-After (delta-seconds or HTTP-date) and quota headers such as
+ * X-RateLimit-Remaining / X-RateLimit-Reset.
+ */
+final class RateLimitHeaders {
+    
+    // Values above this are epoch seconds rather than a delta (roughly year 2001)
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+    
+    private RateLimitHeaders() {
+    }
+    
+    /**
+     * Delay in milliseconds requested by a Retry-After header, or -1 if absent or unparseable
+     */
+    static long retryAfterMillis(Map<String, String> headers, long nowMillis) {
+        String value = header(headers, "retry-after");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try an HTTP-date
+        }
+        try {
+            long until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, until - nowMillis);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Delay in milliseconds until the quota resets when the remaining quota is exhausted,
+     * or -1 if quota headers are absent or quota remains
+     */
+    static long quotaResetMillis(Map<String, String> headers, long nowMillis) {
+        if (headers == null) {
+            return -1;
+        }
+        
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            String name = entry.getKey().toLowerCase();
+            if (!name.startsWith("x-ratelimit-remaining") && !name.startsWith("ratelimit-remaining")) {
+                continue;
+            }
+            if (parseLong(entry.getValue()) != 0) {
+                continue;
+            }
+            
+            // Exhausted: prefer an explicit reset header, then a window suffix such as "-minute"
+            String reset = header(headers, name.replace("remaining", "reset"));
+            if (reset == null) {
+                reset = header(headers, name.startsWith("x-") ? "x-ratelimit-reset" : "ratelimit-reset");
+            }
+            long resetValue = parseLong(reset);
+            if (resetValue >= 0) {
+                return resetValue > EPOCH_SECONDS_THRESHOLD 
+                        ? Math.max(0, resetValue * 1000 - nowMillis) 
+                        : resetValue * 1000;
+            }
+            if (name.endsWith("-second")) {
+                return 1000;
+            }
+            if (name.endsWith("-minute")) {
+                return 60_000 - nowMillis % 60_000;
+            }
+        }
+        return -1;
+    }
+    
+    private static String header(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+    
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return (long) Double.parseDouble(value.split(",")[0].trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent calls.
+ *
+ * If an exchange has not answered after a percentile of recently observed latencies,
+ * a duplicate is sent and whichever answers first wins; the other one is cancelled.
+ * Hedges are budgeted so they never exceed a fixed fraction of all exchanges.
+ */
+public class RequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final int WINDOW_SIZE = 512;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final ScheduledExecutorService scheduler;
+    private final long[] latencyWindow = new long[WINDOW_SIZE];
+    private final AtomicLong exchanges = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private volatile double percentile;
+    private volatile double budgetFraction;
+    private volatile long hedgeDelayNanos = -1;
+    private int samples;
+
+    /**
+     * @param percentile latency percentile (0-100) after which a hedge is sent (0 or less disables hedging)
+     * @param budgetFraction maximum share of exchanges that may be hedges, e.g. 0.05
+     * @param scheduler scheduler used to fire hedges
+     */
+    public RequestHedger(double percentile, double budgetFraction, ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        this.percentile = Math.min(percentile, 100.0);
+        this.budgetFraction = budgetFraction;
+    }
+
+    /**
+     * Run an exchange, hedging it if it is slow. When the budget allows a hedge it is taken
+     * from {@code hedge}, which returns null if the duplicate cannot be sent right now (e.g.
+     * the host has no free slot or rate limit headroom). Only the primary exchange's latency
+     * feeds the percentile window. Both exchanges must be idempotent and cancellable.
+     */
+    public <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> exchange, Supplier<CompletableFuture<T>> hedge) {
+        if (!isEnabled()) {
+            return exchange.get();
+        }
+
+        exchanges.incrementAndGet();
+        long delayNanos = hedgeDelayNanos;
+        CompletableFuture<T> primary = timed(exchange);
+        if (delayNanos < 0) {
+            return primary; // Not enough samples yet
+        }
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        race(primary, winner, pending, () -> { });
+
+        ScheduledFuture<?> timer;
+        try {
+            timer = scheduler.schedule(() -> {
+                if (winner.isDone() || !tryAcquireBudget()) {
+                    return;
+                }
+                CompletableFuture<T> duplicate = hedge.get();
+                if (duplicate == null) {
+                    hedgesSent.decrementAndGet(); // Not sent, give the budget back
+                    return;
+                }
+                pending.incrementAndGet();
+                logger.debug("🏁 No answer after {}ms, sent hedged request", TimeUnit.NANOSECONDS.toMillis(delayNanos));
+                race(duplicate, winner, pending, hedgeWins::incrementAndGet);
+                winner.whenComplete((result, error) -> duplicate.cancel(true));
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            return primary;
+        }
+
+        winner.whenComplete((result, error) -> {
+            timer.cancel(false);
+            primary.cancel(true);
+        });
+        return winner;
+    }
+
+    /**
+     * Complete the winner with the first answer; a failure only wins once no other exchange is pending
+     */
+    private <T> void race(CompletableFuture<T> candidate, CompletableFuture<T> winner, AtomicInteger pending, Runnable onWin) {
+        candidate.whenComplete((result, error) -> {
+            if (error == null) {
+                if (winner.complete(result)) {
+                    onWin.run();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> timed(Supplier<CompletableFuture<T>> exchange) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future = exchange.get();
+        future.thenRun(() -> recordLatency(System.nanoTime() - start));
+        return future;
+    }
+
+    private boolean tryAcquireBudget() {
+        while (true) {
+            long sent = hedgesSent.get();
+            if (sent + 1 > budgetFraction * exchanges.get()) {
+                return false;
+            }
+            if (hedgesSent.compareAndSet(sent, sent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        latencyWindow[samples % WINDOW_SIZE] = latencyNanos;
+        samples++;
+        if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencyWindow, Math.min(samples, WINDOW_SIZE));
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            hedgeDelayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), sorted[Math.max(0, index)]);
+        }
+    }
+
+    /**
+     * Change the hedging percentile and budget. Collected latencies are kept.
+     */
+    public void configure(double percentile, double budgetFraction) {
+        this.percentile = Math.min(percentile, 100.0);
+        this.budgetFraction = budgetFraction;
+    }
+
+    public boolean isEnabled() {
+        return percentile > 0 && budgetFraction > 0;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public double getBudgetFraction() {
+        return budgetFraction;
+    }
+
+    public long getHedgeDelayMs() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(delay);
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single in-flight operation.
+ *
+ * The first caller for a key starts the operation; callers arriving while it is still
+ * running share its result. Once it completes the key is forgotten, so later calls
+ * start a fresh operation.
+ */
+public class SingleFlight<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Run the operation for the key unless one is already in flight, in which case its result is shared.
+     * Each caller receives its own future, so cancelling one does not affect the others.
+     */
+    public CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> leader = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            logger.debug("🔗 Joining in-flight request for {}", key);
+            return existing.copy();
+        }
+
+        try {
+            operation.get().whenComplete((result, error) -> {
+                inFlight.remove(key, leader);
+                if (error != null) {
+                    leader.completeExceptionally(error);
+                } else {
+                    leader.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+        }
+        return leader.copy();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,129 @@
+package com.webcrawler.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor that runs every task on its own virtual thread and keeps the counters
+ * needed to report the same statistics as the platform thread pool.
+ *
+ * Virtual threads are looked up reflectively so the crawler still compiles and runs
+ * on Java 17; {@link #isSupported()} tells whether the running JVM provides them.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+    
+    private final ExecutorService delegate;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong startedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    
+    public VirtualThreadExecutor(String namePrefix) {
+        this.delegate = createThreadPerTaskExecutor(createVirtualThreadFactory(namePrefix));
+    }
+    
+    /**
+     * Check whether the running JVM supports virtual threads
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            // Equivalent to Thread.ofVirtual().name(namePrefix, 0).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer", e);
+        }
+    }
+    
+    private static ExecutorService createThreadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            // Equivalent to Executors.newThreadPerTaskExecutor(factory)
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer", e);
+        }
+    }
+    
+    @Override
+    public void execute(Runnable command) {
+        activeTasks.incrementAndGet();
+        startedTasks.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    logger.warn("⚠️ Virtual thread task completed with exception: {}", e.getMessage());
+                } finally {
+                    activeTasks.decrementAndGet();
+                    completedTasks.incrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            activeTasks.decrementAndGet();
+            startedTasks.decrementAndGet();
+            throw e;
+        }
+    }
+    
+    public int getActiveCount() {
+        return activeTasks.get();
+    }
+    
+    public long getStartedTaskCount() {
+        return startedTasks.get();
+    }
+    
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+    
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+    
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,66 @@
+package com.webcrawler.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Progress of a recurring crawl, persisted between runs so the next run only fetches what changed
+ */
+public class CrawlCheckpoint {
+    
+    @JsonProperty("last_publication_date")
+    private String lastPublicationDate;
+    
+    @JsonProperty("last_modified")
+    private String lastModified;
+    
+    @JsonProperty("seen_ids")
+    private Set<String> seenIds = new LinkedHashSet<>();
+    
+    @JsonProperty("updated_at")
+    private LocalDateTime updatedAt;
+    
+    public CrawlCheckpoint() {
+    }
+    
+    // Getters and Setters
+    public String getLastPublicationDate() {
+        return lastPublicationDate;
+    }
+    
+    public void setLastPublicationDate(String lastPublicationDate) {
+        this.lastPublicationDate = lastPublicationDate;
+    }
+    
+    public String getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+    
+    public Set<String> getSeenIds() {
+        return seenIds;
+    }
+    
+    public void setSeenIds(Set<String> seenIds) {
+        this.seenIds = seenIds;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CrawlCheckpoint{lastPublicationDate='%s', lastModified='%s', seenIds=%d}", 
+                           lastPublicationDate, lastModified, seenIds.size());
+    }
+}
@@ -1,5 +1,6 @@
 package com.webcrawler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -15,6 +16,9 @@ public class CrawlResult {
     @JsonProperty("data")
     private Map<String, Object> data;
     
+    @JsonIgnore
+    private Object body; // Typed response body, set instead of data when the host has a registered type
+    
     @JsonProperty("timestamp")
     private LocalDateTime timestamp;
     
@@ -56,6 +60,29 @@ public class CrawlResult {
         this.data = data;
     }
     
+    public Object getBody() {
+        return body;
+    }
+    
+    /**
+     * The typed response body if it is of the given type, otherwise null
+     */
+    public <T> T getBody(Class<T> type) {
+        return type.isInstance(body) ? type.cast(body) : null;
+    }
+    
+    public void setBody(Object body) {
+        this.body = body;
+    }
+    
+    /**
+     * The parsed response: the typed body if there is one, otherwise the untyped data
+     */
+    @JsonIgnore
+    public Object getContent() {
+        return body != null ? body : data;
+    }
+    
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
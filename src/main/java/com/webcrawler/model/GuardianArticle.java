@@ -0,0 +1,90 @@
+package com.webcrawler.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One article of a Guardian search response.
+ *
+ * {@code fields} holds whatever was requested with show-fields, so it stays a map of
+ * strings (the API sends every field value as a string). Properties the record does not
+ * declare are kept in {@code otherProperties} and written back out, so a saved article
+ * has every property the API sent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GuardianArticle(
+        String id,
+        String type,
+        String sectionId,
+        String sectionName,
+        String webPublicationDate,
+        String webTitle,
+        String webUrl,
+        String apiUrl,
+        Map<String, String> fields,
+        List<Tag> tags,
+        Boolean isHosted,
+        String pillarId,
+        String pillarName,
+        @JsonIgnore Map<String, Object> otherProperties) {
+
+    public GuardianArticle {
+        otherProperties = otherProperties != null ? otherProperties : new LinkedHashMap<>();
+    }
+
+    @JsonAnySetter
+    void putOtherProperty(String name, Object value) {
+        otherProperties.put(name, value);
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> otherProperties() {
+        return otherProperties;
+    }
+
+    /**
+     * A requested article field, or null if it was not sent
+     */
+    public String field(String name) {
+        return fields != null ? fields.get(name) : null;
+    }
+
+    /**
+     * A tag requested with show-tags; undeclared properties are kept like the article's
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Tag(
+            String id,
+            String type,
+            String sectionId,
+            String sectionName,
+            String webTitle,
+            String webUrl,
+            String apiUrl,
+            String bio,
+            String bylineImageUrl,
+            String firstName,
+            String lastName,
+            @JsonIgnore Map<String, Object> otherProperties) {
+
+        public Tag {
+            otherProperties = otherProperties != null ? otherProperties : new LinkedHashMap<>();
+        }
+
+        @JsonAnySetter
+        void putOtherProperty(String name, Object value) {
+            otherProperties.put(name, value);
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> otherProperties() {
+            return otherProperties;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.webcrawler.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Guardian content API search response, bound directly from the response body
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GuardianSearchResponse(Content response) {
+
+    /**
+     * The "response" object: paging information and the page's articles. Properties the
+     * record does not declare are kept and written back out.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Content(
+            String status,
+            String userTier,
+            Integer total,
+            Integer startIndex,
+            Integer pageSize,
+            Integer currentPage,
+            Integer pages,
+            String orderBy,
+            List<GuardianArticle> results,
+            String message,
+            @JsonIgnore Map<String, Object> otherProperties) {
+
+        public Content {
+            otherProperties = otherProperties != null ? otherProperties : new LinkedHashMap<>();
+        }
+
+        @JsonAnySetter
+        void putOtherProperty(String name, Object value) {
+            otherProperties.put(name, value);
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> otherProperties() {
+            return otherProperties;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.webcrawler.storage;
+
+/**
+ * Bloom filter over ids, sized for an expected number of ids and false-positive rate.
+ * Bit positions come from double hashing of two independent 64-bit hashes.
+ */
+final class BloomIdFilter implements IdFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private long size;
+
+    BloomIdFilter(long expectedIds, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1, got " + falsePositiveRate);
+        }
+        long expected = Math.max(1, expectedIds);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (Math.max(64, optimalBits) + 63) / 64)];
+        this.bitCount = bits.length * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    @Override
+    public boolean firstSeen(String id) {
+        long hash1 = IdFilter.hash64(id, 0);
+        long hash2 = IdFilter.hash64(id, 0x9e3779b97f4a7c15L) | 1;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                added = true;
+            }
+        }
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Number of ids that were taken as new
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+}
@@ -77,8 +77,8 @@ public class CrawlDataStorage {
             
             // Convert data to JSON string
             String dataJson = null;
-            if (result.getData() != null) {
-                dataJson = objectMapper.writeValueAsString(result.getData());
+            if (result.getContent() != null) {
+                dataJson = objectMapper.writeValueAsString(result.getContent());
             }
             pstmt.setString(3, dataJson);
             
@@ -0,0 +1,68 @@
+package com.webcrawler.storage;
+
+/**
+ * Open-addressing set of 64-bit id hashes: 8 bytes per slot instead of a String and
+ * a HashMap node per id. Two ids only collide if their 64-bit hashes do.
+ */
+final class HashedIdSet implements IdFilter {
+
+    private static final double MAX_LOAD = 0.6;
+    private static final long EMPTY = 0;
+
+    private long[] slots;
+    private boolean containsEmpty; // Whether the id hashing to the EMPTY marker was seen
+    private int size;
+
+    HashedIdSet(int expectedIds) {
+        int capacity = Integer.highestOneBit((int) Math.max(16, expectedIds / MAX_LOAD) - 1) << 1;
+        this.slots = new long[capacity];
+    }
+
+    @Override
+    public boolean firstSeen(String id) {
+        long hash = IdFilter.hash64(id, 0);
+        if (hash == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        if (!insert(slots, hash)) {
+            return false;
+        }
+        if (++size > slots.length * MAX_LOAD) {
+            grow();
+        }
+        return true;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] larger = new long[slots.length * 2];
+        for (long hash : slots) {
+            if (hash != EMPTY) {
+                insert(larger, hash);
+            }
+        }
+        slots = larger;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            if (table[i] == hash) {
+                return false;
+            }
+            if (table[i] == EMPTY) {
+                table[i] = hash;
+                return true;
+            }
+        }
+    }
+}
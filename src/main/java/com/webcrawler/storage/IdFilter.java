@@ -0,0 +1,51 @@
+package com.webcrawler.storage;
+
+/**
+ * Remembers ids that have been seen, for dropping duplicates from a stream of items.
+ * Implementations are not thread-safe.
+ */
+public interface IdFilter {
+
+    /**
+     * Record the id, returning true if it had not been seen before
+     */
+    boolean firstSeen(String id);
+
+    /**
+     * Number of distinct ids recorded
+     */
+    long size();
+
+    /**
+     * Exact set of 64-bit id hashes, growing as needed
+     */
+    static IdFilter exact(int expectedIds) {
+        return new HashedIdSet(expectedIds);
+    }
+
+    /**
+     * Fixed-size Bloom filter: a new id is taken for a duplicate with roughly the given
+     * probability once expectedIds ids are recorded, in exchange for a much smaller footprint
+     */
+    static IdFilter bloom(long expectedIds, double falsePositiveRate) {
+        return new BloomIdFilter(expectedIds, falsePositiveRate);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the id's characters with a murmur finalizer, seeded so
+     * that different seeds give independent hashes
+     */
+    static long hash64(String id, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,9 +1,13 @@
 package com.webcrawler.storage;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.webcrawler.model.CrawlCheckpoint;
 import com.webcrawler.model.CrawlResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +17,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -70,23 +75,26 @@ public class JsonFileStorage {
     }
     
     /**
-     * Save a single crawl result to JSON file (clean data only)
+     * Save a single crawl result to JSON file (clean data only).
+     * Returns whether the file was written.
      */
-    public void save(CrawlResult result) {
+    public boolean save(CrawlResult result) {
         try {
             String filename = generateFilename(result.getUrl(), result.getTimestamp());
             File outputFile = new File(outputDirectory, filename);
             
             // Save only the clean data, not all the metadata
-            if (result.getData() != null) {
-                objectMapper.writeValue(outputFile, result.getData());
+            if (result.getContent() != null) {
+                objectMapper.writeValue(outputFile, result.getContent());
                 logger.info("Saved clean data to: {}", outputFile.getAbsolutePath());
-            } else {
-                logger.warn("No data to save for URL: {}", result.getUrl());
+                return true;
             }
+            logger.warn("No data to save for URL: {}", result.getUrl());
+            return false;
             
         } catch (IOException e) {
             logger.error("Failed to save crawl result for URL: {}", result.getUrl(), e);
+            return false;
         }
     }
     
@@ -109,10 +117,10 @@ public class JsonFileStorage {
             // Create a clean map of URL -> data
             Map<String, Object> cleanResults = new LinkedHashMap<>();
             for (CrawlResult result : results) {
-                if (result.getData() != null) {
+                if (result.getContent() != null) {
                     // Use a clean URL as the key
                     String cleanUrl = result.getUrl().replaceAll("https?://", "");
-                    cleanResults.put(cleanUrl, result.getData());
+                    cleanResults.put(cleanUrl, result.getContent());
                 }
             }
             
@@ -124,6 +132,91 @@ public class JsonFileStorage {
         }
     }
     
+    /**
+     * Open a file that the pages of a paginated response are written to as they arrive
+     *
+     * @param url the URL the combined result is keyed by
+     */
+    public PaginatedResultWriter openPaginatedWriter(String filename, String url) throws IOException {
+        File outputFile = new File(outputDirectory, filename);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputFile, JsonEncoding.UTF8);
+        generator.setPrettyPrinter(objectMapper.getSerializationConfig().constructDefaultPrettyPrinter());
+        try {
+            return new PaginatedResultWriter(generator, objectMapper, outputFile, url);
+        } catch (IOException e) {
+            generator.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Save any JSON value to a file in the output directory
+     */
+    public void saveJson(Object value, String filename) {
+        try {
+            File outputFile = new File(outputDirectory, filename);
+            objectMapper.writeValue(outputFile, value);
+            logger.info("Saved JSON to: {}", outputFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to save JSON to file: {}", filename, e);
+        }
+    }
+    
+    /**
+     * Load a JSON file from the output directory as the given type, or null if there is none
+     */
+    public <T> T loadJson(String filename, TypeReference<T> type) {
+        File inputFile = new File(outputDirectory, filename);
+        if (!inputFile.exists()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(inputFile, type);
+        } catch (IOException e) {
+            logger.error("Failed to load JSON from file: {}", filename, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Load a crawl checkpoint kept in the output directory's checkpoints folder, or null if there is none
+     */
+    public CrawlCheckpoint loadCheckpoint(String name) {
+        File checkpointFile = getCheckpointFile(name);
+        if (!checkpointFile.exists()) {
+            return null;
+        }
+        try {
+            CrawlCheckpoint checkpoint = objectMapper.readValue(checkpointFile, CrawlCheckpoint.class);
+            logger.info("Loaded checkpoint {} from: {}", checkpoint, checkpointFile.getAbsolutePath());
+            return checkpoint;
+        } catch (IOException e) {
+            logger.error("Failed to load checkpoint: {}", checkpointFile.getAbsolutePath(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Save a crawl checkpoint. It is written to a temporary file first so a crash never leaves a torn checkpoint.
+     */
+    public void saveCheckpoint(String name, CrawlCheckpoint checkpoint) {
+        File checkpointFile = getCheckpointFile(name);
+        try {
+            Files.createDirectories(checkpointFile.toPath().getParent());
+            Path tempFile = Paths.get(checkpointFile.getPath() + ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), checkpoint);
+            Files.move(tempFile, checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+                       StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved checkpoint {} to: {}", checkpoint, checkpointFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to save checkpoint: {}", checkpointFile.getAbsolutePath(), e);
+        }
+    }
+    
+    private File getCheckpointFile(String name) {
+        return Paths.get(outputDirectory, "checkpoints", name + ".json").toFile();
+    }
+    
     /**
      * Load crawl results from a JSON file
      */
@@ -147,7 +240,9 @@ public class JsonFileStorage {
     }
     
     /**
-     * Generate a filename based on URL (without timestamp for overwriting)
+     * Generate a filename based on URL (without timestamp for overwriting). Truncated
+     * names end with a hash of the full URL, so URLs sharing a long prefix (such as the
+     * pages of one search) do not overwrite each other.
      */
     private String generateFilename(String url, LocalDateTime timestamp) {
         // Clean URL to make it filename-safe
@@ -158,7 +253,7 @@ public class JsonFileStorage {
         
         // If URL is too long, truncate it
         if (cleanUrl.length() > 50) {
-            cleanUrl = cleanUrl.substring(0, 50);
+            cleanUrl = cleanUrl.substring(0, 50) + "_" + Long.toHexString(IdFilter.hash64(url, 0));
         }
         
         return String.format("crawl_%s.json", cleanUrl);
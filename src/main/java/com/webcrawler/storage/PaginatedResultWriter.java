@@ -0,0 +1,149 @@
+package com.webcrawler.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Writes the pages of a paginated response to one JSON file as they arrive.
+ *
+ * The file has the same layout as a combined result saved with
+ * {@link JsonFileStorage#saveAllToSingleFile}: {@code {url: {response: {results: [...], ...}}}}.
+ * Pages may be handed in any order; each is written as soon as every page before it has
+ * been written, so only pages that arrive ahead of a slower one are held in memory.
+ * An optional item filter runs in page order, so which copy of a duplicate is kept does
+ * not depend on the order pages arrive in. An optional item limit caps the results at a
+ * number of items, dropping the surplus of the last pages. Summary fields are appended
+ * after the results by {@link #finish(Map)}.
+ */
+public class PaginatedResultWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaginatedResultWriter.class);
+
+    private final JsonGenerator generator;
+    private final ObjectMapper objectMapper;
+    private final File outputFile;
+    private final Map<Integer, List<?>> pending = new HashMap<>(); // Null value: failed page
+    private Predicate<Object> itemFilter = item -> true;
+    private long itemLimit = Long.MAX_VALUE;
+    private int nextPage;
+    private int pagesWritten;
+    private long itemsWritten;
+    private long itemsSkipped;
+    private boolean finished;
+
+    PaginatedResultWriter(JsonGenerator generator, ObjectMapper objectMapper, File outputFile,
+                          String url) throws IOException {
+        this.generator = generator;
+        this.objectMapper = objectMapper;
+        this.outputFile = outputFile;
+
+        generator.writeStartObject();
+        generator.writeObjectFieldStart(url.replaceAll("https?://", ""));
+        generator.writeObjectFieldStart("response");
+        generator.writeArrayFieldStart("results");
+    }
+
+    /**
+     * Only write items the filter accepts; it is called once per item, in output order
+     */
+    public synchronized void setItemFilter(Predicate<Object> itemFilter) {
+        this.itemFilter = itemFilter;
+    }
+
+    /**
+     * Stop writing items once this many have been written; the surplus is neither
+     * filtered nor counted as skipped
+     */
+    public synchronized void setItemLimit(long itemLimit) {
+        this.itemLimit = itemLimit;
+    }
+
+    /**
+     * Hand in the items of the page at the given index (0-based); null marks a failed page
+     */
+    public synchronized void writePage(int index, List<?> items) throws IOException {
+        if (index < nextPage || pending.containsKey(index)) {
+            throw new IllegalArgumentException("Page " + index + " was already written");
+        }
+        pending.put(index, items);
+        while (pending.containsKey(nextPage)) {
+            List<?> page = pending.remove(nextPage++);
+            if (page == null) {
+                continue;
+            }
+            for (Object item : page) {
+                if (itemsWritten >= itemLimit) {
+                    break;
+                }
+                if (itemFilter.test(item)) {
+                    objectMapper.writeValue(generator, item);
+                    itemsWritten++;
+                } else {
+                    itemsSkipped++;
+                }
+            }
+            pagesWritten++;
+        }
+        generator.flush();
+    }
+
+    /**
+     * Close the results array, append the summary fields and close the file.
+     * Pages that were never handed in are skipped.
+     */
+    public synchronized void finish(Map<String, Object> summary) throws IOException {
+        if (!pending.isEmpty()) {
+            logger.warn("⚠️ {} pages of {} were never written: missing an earlier page", pending.size(), outputFile.getName());
+            pending.clear();
+        }
+        generator.writeEndArray();
+        for (Map.Entry<String, Object> field : summary.entrySet()) {
+            generator.writeFieldName(field.getKey());
+            objectMapper.writeValue(generator, field.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        finished = true;
+        generator.close();
+        logger.info("Streamed {} items from {} pages to: {}", itemsWritten, pagesWritten, outputFile.getAbsolutePath());
+    }
+
+    /**
+     * Number of non-failed pages written so far
+     */
+    public synchronized int getPagesWritten() {
+        return pagesWritten;
+    }
+
+    public synchronized long getItemsWritten() {
+        return itemsWritten;
+    }
+
+    /**
+     * Number of items the item filter rejected
+     */
+    public synchronized long getItemsSkipped() {
+        return itemsSkipped;
+    }
+
+    /**
+     * Close the file; without {@link #finish(Map)} it is left incomplete
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!finished) {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.webcrawler.storage;
+
+import com.webcrawler.model.CrawlResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber that hands each crawl result to a sink as soon as it arrives.
+ * Only a few results are requested ahead of the sink, so a slow sink slows the crawl
+ * down instead of letting results pile up in memory.
+ */
+public class ResultSubscriber implements Flow.Subscriber<CrawlResult> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResultSubscriber.class);
+    
+    private final Consumer<CrawlResult> sink;
+    private final int prefetch;
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private long received;
+    
+    public ResultSubscriber(Consumer<CrawlResult> sink) {
+        this(sink, 16);
+    }
+    
+    /**
+     * @param prefetch number of results requested ahead of the sink
+     */
+    public ResultSubscriber(Consumer<CrawlResult> sink, int prefetch) {
+        this.sink = sink;
+        this.prefetch = Math.max(1, prefetch);
+    }
+    
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(prefetch);
+    }
+    
+    @Override
+    public void onNext(CrawlResult result) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            sink.accept(result);
+            received++;
+        } catch (RuntimeException e) {
+            logger.error("Failed to handle crawl result for URL: {}", result.getUrl(), e);
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+    
+    @Override
+    public void onError(Throwable error) {
+        completion.completeExceptionally(error);
+    }
+    
+    @Override
+    public void onComplete() {
+        completion.complete(received);
+    }
+    
+    /**
+     * Completes with the number of results handled once the stream ends
+     */
+    public CompletableFuture<Long> completion() {
+        return completion;
+    }
+}
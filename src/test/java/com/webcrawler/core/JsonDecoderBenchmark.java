@@ -0,0 +1,81 @@
+package com.webcrawler.core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Allocation and time per response of the old parse path (String decode, readTree,
+ * convertValue) against {@link JsonDecoder#decodeMap}, on a generated Guardian-like
+ * search page with 200 articles and bodies.
+ *
+ * Not a unit test; run it with:
+ * {@code mvn -q test-compile exec:java -Dexec.mainClass=com.webcrawler.core.JsonDecoderBenchmark -Dexec.classpathScope=test}
+ * Optional arguments: the number of parses per round (default 200) and of rounds (default 5).
+ * The first rounds include warm-up.
+ */
+public class JsonDecoderBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    public static void main(String[] args) throws Exception {
+        int parses = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        byte[] body = guardianPage(200).getBytes(StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonDecoder decoder = new JsonDecoder(objectMapper);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long checksum = 0;
+
+        System.out.println("Body: " + body.length / 1024 + " KB, " + parses + " parses per round");
+        for (int round = 1; round <= rounds; round++) {
+            long startBytes = threads.getThreadAllocatedBytes(thread);
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < parses; i++) {
+                JsonNode tree = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+                checksum += objectMapper.convertValue(tree, MAP_TYPE).size();
+            }
+            long oldBytes = threads.getThreadAllocatedBytes(thread) - startBytes;
+            long oldNanos = System.nanoTime() - startNanos;
+
+            startBytes = threads.getThreadAllocatedBytes(thread);
+            startNanos = System.nanoTime();
+            for (int i = 0; i < parses; i++) {
+                checksum += decoder.decodeMap(body, StandardCharsets.UTF_8).size();
+            }
+            long newBytes = threads.getThreadAllocatedBytes(thread) - startBytes;
+            long newNanos = System.nanoTime() - startNanos;
+
+            System.out.printf("Round %d  old: %.2f MB %.2f ms per page | decoder: %.2f MB %.2f ms per page%n", round,
+                    oldBytes / 1e6 / parses, oldNanos / 1e6 / parses, newBytes / 1e6 / parses, newNanos / 1e6 / parses);
+        }
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    /**
+     * A search response shaped like the Guardian's, with the given number of articles
+     */
+    private static String guardianPage(int articles) {
+        StringBuilder json = new StringBuilder("{\"response\":{\"status\":\"ok\",\"userTier\":\"developer\",\"total\":9999,")
+                .append("\"pageSize\":").append(articles).append(",\"currentPage\":1,\"pages\":50,\"results\":[");
+        String body = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>".repeat(50);
+        for (int i = 0; i < articles; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"world/2025/jun/01/story-").append(i).append("\",\"type\":\"article\",")
+                .append("\"sectionId\":\"world\",\"sectionName\":\"World news\",")
+                .append("\"webPublicationDate\":\"2025-06-01T10:00:00Z\",\"webTitle\":\"Headline ").append(i).append("\",")
+                .append("\"webUrl\":\"https://www.theguardian.com/world/2025/jun/01/story-").append(i).append("\",")
+                .append("\"fields\":{\"headline\":\"Headline ").append(i).append("\",\"byline\":\"A Reporter\",")
+                .append("\"body\":\"").append(body).append("\"}}");
+        }
+        return json.append("]}}").toString();
+    }
+}